@@ -0,0 +1,92 @@
+import java.util.*;
+
+// Absurdle-style opponent that never commits to a word: each guess gets the feedback shared by the most remaining
+// answers, and the answers are narrowed to that group. All buffers are sized once, so a game allocates nothing.
+public final class AbsurdleAdversary {
+    private final DictionaryIndex answers;
+    private final int wordLength;
+    private final boolean packed; // 5-letter answers go through the packed-word kernel
+    private final int[] remainingIds;
+    private final int[] remainingPacked;
+    private final int[] codes;
+    private final int[] buckets; // One per feedback code, zero between calls
+    private int size;
+
+    public AbsurdleAdversary(DictionaryIndex answers) {
+        this.answers = answers;
+        this.wordLength = answers.wordLength();
+        int patterns = FeedbackMatrix.patterns(wordLength);
+        this.packed = wordLength == FeedbackMatrix.WORD_LENGTH;
+        int n = answers.size();
+        this.remainingIds = new int[n];
+        this.remainingPacked = packed ? new int[n] : null;
+        this.codes = new int[n];
+        this.buckets = new int[patterns];
+        reset();
+    }
+
+    public void reset() {
+        size = answers.size();
+        for (int id = 0; id < size; id++) {
+            remainingIds[id] = id;
+            if (packed) {
+                remainingPacked[id] = answers.packedWord(id);
+            }
+        }
+    }
+
+    public int remaining() {
+        return size;
+    }
+
+    public List<String> remainingWords() {
+        List<String> words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            words.add(answers.word(remainingIds[i]));
+        }
+        return words;
+    }
+
+    // Feedback code for guess; ties between equally large groups go to the lowest code, so all green (the highest)
+    // only comes back once a single answer is left
+    public int respond(String guess) {
+        if (guess.length() != wordLength) {
+            throw new IllegalArgumentException("Expected a " + wordLength + "-letter guess: " + guess);
+        }
+        if (size == 0) {
+            throw new IllegalStateException("No answers remain");
+        }
+        if (packed) {
+            FeedbackKernel.get().feedback(PackedWords.pack(guess), remainingPacked, size, codes);
+        } else {
+            for (int i = 0; i < size; i++) {
+                codes[i] = FeedbackMatrix.encode(guess, answers.word(remainingIds[i]));
+            }
+        }
+
+        int best = -1;
+        int bestCount = 0;
+        for (int i = 0; i < size; i++) {
+            int code = codes[i];
+            int count = ++buckets[code];
+            if (count > bestCount || (count == bestCount && code < best)) {
+                best = code;
+                bestCount = count;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            buckets[codes[i]] = 0;
+            if (codes[i] == best) {
+                remainingIds[kept] = remainingIds[i];
+                if (packed) {
+                    remainingPacked[kept] = remainingPacked[i];
+                }
+                kept++;
+            }
+        }
+        size = kept;
+        return best;
+    }
+}
@@ -0,0 +1,294 @@
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Deadline-bounded guess selection. Guesses are scored by the expected number of candidates they leave (the sum of
+// squared feedback-group sizes), first against a stratified sample of the candidates while sweeping the guess pool
+// in stratified order, then the leaders are re-scored on ever larger samples, and once they cover every candidate
+// the rest of the pool is swept again on the full set. Whenever the deadline passes, the best
+// guess so far is returned together with how much of the problem it covered, so a turn never takes much longer than
+// the budget, however large the dictionary: the clock is read after every guess scored, and a score costs microseconds
+// once the feedback kernel is compiled.
+public final class AnytimeGuessPicker {
+    private static final int INITIAL_SAMPLE = 128; // Candidates in the first sample
+    private static final int SAMPLE_GROWTH = 4;
+    private static final int STRATA = 64; // The ranked guess pool is swept one word per stratum at a time
+    private static final int LEADERS = 16; // Guesses carried into the refinement rounds
+
+    private final long budgetNanos;
+    private final LongAdder picks = new LongAdder();
+    private final LongAdder deadlineHits = new LongAdder();
+    private final ThreadLocal<int[]> buckets = new ThreadLocal<>();
+
+    public AnytimeGuessPicker(long budgetNanos) {
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("Deadline must be positive: " + budgetNanos + "ns");
+        }
+        this.budgetNanos = budgetNanos;
+        FeedbackKernel.get(); // Loads the kernel now rather than inside the first pick's budget
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public long picks() {
+        return picks.sum();
+    }
+
+    // Picks that ran out of time before scoring every guess in the pool against every candidate
+    public long deadlineHits() {
+        return deadlineHits.sum();
+    }
+
+    public Selection pick(List<String> guessPool, List<String> candidates) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        picks.increment();
+        int n = candidates.size();
+        if (n <= 2) {
+            return new Selection(candidates.get(0), 0, 0, guessPool.size(), n, n, true, false, 1.0, 0);
+        }
+
+        int[] counts = buckets(candidates.get(0).length());
+
+        // Sweep: the candidate sample first (they can also win outright), then the pool one stratum at a time
+        Sample sample = new Sample(candidates, Math.min(n, INITIAL_SAMPLE), counts);
+        Leaders leaders = new Leaders();
+        boolean timedOut = false;
+        for (int i = 0; i < sample.size && !timedOut; i++) {
+            leaders.offer(sample.words[i], sample.score(sample.words[i]));
+            timedOut = System.nanoTime() >= deadline;
+        }
+        int poolSize = guessPool.size();
+        int stratum = (poolSize + STRATA - 1) / STRATA;
+        int scored = 0;
+        for (int step = 0; step < stratum * STRATA && !timedOut; step++) {
+            int g = (step % STRATA) * stratum + step / STRATA;
+            if (g >= poolSize) {
+                continue;
+            }
+            leaders.offer(guessPool.get(g), sample.score(guessPool.get(g)));
+            scored++;
+            timedOut = System.nanoTime() >= deadline;
+        }
+
+        // Refine: re-score the leaders on larger samples; a round cut short is dropped, scores must share a sample
+        while (!timedOut && sample.size < n) {
+            Sample larger = new Sample(candidates, Math.min(n, sample.size * SAMPLE_GROWTH), counts);
+            long[] rescored = new long[leaders.size];
+            for (int i = 0; i < leaders.size && !timedOut; i++) {
+                rescored[i] = larger.score(leaders.guesses[i]);
+                timedOut = System.nanoTime() >= deadline;
+            }
+            if (timedOut) {
+                break;
+            }
+            leaders.rescore(rescored);
+            sample = larger;
+        }
+
+        // Verify: the leaders now hold full-set scores, but the rest of the pool was only scored on the first sample,
+        // where a guess outside the leaders may have ranked lower than it does on every candidate
+        int verified = 0;
+        if (n <= INITIAL_SAMPLE) {
+            verified = scored; // The first sample already was the full set
+        } else if (sample.size == n) {
+            for (int step = 0; step < stratum * STRATA && !timedOut; step++) {
+                int g = (step % STRATA) * stratum + step / STRATA;
+                if (g >= poolSize) {
+                    continue;
+                }
+                leaders.offer(guessPool.get(g), sample.score(guessPool.get(g)));
+                verified++;
+                timedOut = System.nanoTime() >= deadline;
+            }
+        }
+
+        boolean complete = verified == poolSize;
+        if (!complete) {
+            deadlineHits.increment();
+        }
+        double expectedRemaining = (double) n * leaders.scores[0] / ((double) sample.size * sample.size);
+        return new Selection(leaders.guesses[0], scored, verified, poolSize, sample.size, n, complete, false,
+                expectedRemaining, System.nanoTime() - start);
+    }
+
+    // The coverage report for a pick taken from the decision cache, which only holds complete picks
+    public Selection cached(String guess, List<String> candidates, int poolSize) {
+        long start = System.nanoTime();
+        int n = candidates.size();
+        double expectedRemaining = 1.0;
+        if (n > 2) {
+            expectedRemaining = (double) new Sample(candidates, n, buckets(candidates.get(0).length())).score(guess) / n;
+        }
+        return new Selection(guess, poolSize, poolSize, poolSize, n, n, true, true, expectedRemaining,
+                System.nanoTime() - start);
+    }
+
+    private int[] buckets(int wordLength) {
+        int[] counts = buckets.get();
+        if (counts == null || counts.length != FeedbackMatrix.patterns(wordLength)) {
+            counts = new int[FeedbackMatrix.patterns(wordLength)];
+            buckets.set(counts);
+        }
+        return counts;
+    }
+
+    // Every (n / size)-th candidate of the ranked list, one per stratum, so common and rare words are both covered
+    private static final class Sample {
+        final String[] words;
+        final int[] packed; // Only for 5-letter words, scored with the feedback kernel
+        final int size;
+        final int[] codes;
+        final int[] counts;
+
+        Sample(List<String> candidates, int size, int[] counts) {
+            int n = candidates.size();
+            this.size = size;
+            this.words = new String[size];
+            this.codes = new int[size];
+            this.counts = counts;
+            boolean kernel = candidates.get(0).length() == FeedbackMatrix.WORD_LENGTH;
+            this.packed = kernel ? new int[size] : null;
+            for (int i = 0; i < size; i++) {
+                words[i] = candidates.get((int) ((2L * i + 1) * n / (2L * size)));
+                if (kernel) {
+                    packed[i] = PackedWords.pack(words[i]);
+                }
+            }
+        }
+
+        // Sum of squared feedback-group sizes; lower leaves fewer candidates on average
+        long score(String guess) {
+            if (packed != null) {
+                FeedbackKernel.get().feedback(PackedWords.pack(guess), packed, size, codes);
+            } else {
+                for (int i = 0; i < size; i++) {
+                    codes[i] = FeedbackMatrix.encode(guess, words[i]);
+                }
+            }
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += 2L * counts[codes[i]]++ + 1; // (k + 1)^2 - k^2
+            }
+            for (int i = 0; i < size; i++) {
+                counts[codes[i]] = 0; // Only the touched buckets; longer words have up to 3^11 of them
+            }
+            return sum;
+        }
+    }
+
+    // The best guesses so far, ascending by score; on a tie the guess seen first stays ahead
+    private static final class Leaders {
+        final String[] guesses = new String[LEADERS];
+        final long[] scores = new long[LEADERS];
+        int size;
+
+        void offer(String guess, long score) {
+            if (size == LEADERS && score >= scores[size - 1]) {
+                return;
+            }
+            for (int j = 0; j < size; j++) {
+                if (guesses[j].equals(guess)) {
+                    return; // Sampled candidates come up again in the pool sweep
+                }
+            }
+            int i = size == LEADERS ? size - 1 : size++;
+            while (i > 0 && scores[i - 1] > score) {
+                guesses[i] = guesses[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            guesses[i] = guess;
+            scores[i] = score;
+        }
+
+        void rescore(long[] rescored) {
+            String[] previous = Arrays.copyOf(guesses, size);
+            int count = size;
+            size = 0;
+            for (int i = 0; i < count; i++) {
+                offer(previous[i], rescored[i]);
+            }
+        }
+    }
+
+    // The chosen guess and how much of the problem stood behind it
+    public static final class Selection {
+        private final String guess;
+        private final int guessesScored;
+        private final int guessesVerified;
+        private final int poolSize;
+        private final int sampleSize;
+        private final int candidates;
+        private final boolean complete;
+        private final boolean cached;
+        private final double expectedRemaining;
+        private final long elapsedNanos;
+
+        Selection(String guess, int guessesScored, int guessesVerified, int poolSize, int sampleSize, int candidates,
+                boolean complete, boolean cached, double expectedRemaining, long elapsedNanos) {
+            this.guess = guess;
+            this.guessesScored = guessesScored;
+            this.guessesVerified = guessesVerified;
+            this.poolSize = poolSize;
+            this.sampleSize = sampleSize;
+            this.candidates = candidates;
+            this.complete = complete;
+            this.cached = cached;
+            this.expectedRemaining = expectedRemaining;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String guess() {
+            return guess;
+        }
+
+        // Share of the guess pool that was scored
+        public double guessCoverage() {
+            return poolSize == 0 ? 1.0 : (double) guessesScored / poolSize;
+        }
+
+        // Share of the guess pool that was scored against every candidate, not just a sample
+        public double verifiedCoverage() {
+            return poolSize == 0 ? 1.0 : (double) guessesVerified / poolSize;
+        }
+
+        // Share of the candidates behind the chosen guess's score
+        public double candidateCoverage() {
+            return (double) sampleSize / candidates;
+        }
+
+        // Every guess in the pool scored against every candidate, so the pick is exact for this scoring
+        public boolean isComplete() {
+            return complete;
+        }
+
+        // Taken from the decision cache rather than picked this turn
+        public boolean isCached() {
+            return cached;
+        }
+
+        // Estimated candidates left after the guess
+        public double expectedRemaining() {
+            return expectedRemaining;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%s: %.0f%% of guesses, %d/%d candidates, %.0f%% verified on all, ~%.1f left, %.2fms%s", guess,
+                    100 * guessCoverage(), sampleSize, candidates, 100 * verifiedCoverage(), expectedRemaining,
+                    elapsedNanos / 1e6, cached ? " (cached)" : complete ? "" : " (deadline)");
+        }
+    }
+
+    static long parseMillis(String millis) {
+        return (long) (Double.parseDouble(millis) * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
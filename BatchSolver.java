@@ -0,0 +1,256 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// Streams recorded partial games through read -> (parse, replay, choose) -> write. Lines are handed to the workers
+// in chunks; at most a fixed number of chunks are in flight, so a slow writer or slow workers stall the reader
+// instead of buffering the input. Results are written in input order.
+//
+// Input: each line is an independent game, alternating guess and feedback ("salet XYXXX frogs XXGXX"); an empty
+// line asks for the opening guess.
+// Output, one line each: "<guess> <remaining>", "SOLVED <word> <guesses>", "FAILED no possible words remain"
+// or "ERR <message>".
+public final class BatchSolver {
+    public static final int DEFAULT_CHUNK_SIZE = 512;
+
+    private static final Future<String> END = CompletableFuture.completedFuture(null);
+
+    private final ExecutorService workers;
+    private final ThreadLocal<SolverGame> games;
+    private final int chunkSize;
+    private final int maxInFlight;
+
+    public BatchSolver(int threads, int chunkSize, Supplier<SolverGame> games) {
+        int parallelism = Math.max(1, threads);
+        this.workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "batch-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.games = ThreadLocal.withInitial(games);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxInFlight = parallelism * 4;
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // Returns the number of games processed
+    public long run(BufferedReader in, Writer out) throws IOException {
+        BlockingQueue<Future<String>> inFlight = new ArrayBlockingQueue<>(maxInFlight);
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (Future<String> chunk = inFlight.take(); chunk != END; chunk = inFlight.take()) {
+                    out.write(chunk.get());
+                }
+                out.flush();
+                written.complete(null);
+            } catch (Exception e) {
+                written.completeExceptionally(e);
+            }
+        }, "batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        long games = 0;
+        try {
+            String[] chunk = new String[chunkSize];
+            int size = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                chunk[size++] = line;
+                games++;
+                if (size == chunkSize) {
+                    submit(inFlight, chunk, size, written);
+                    chunk = new String[chunkSize];
+                    size = 0;
+                }
+            }
+            if (size > 0) {
+                submit(inFlight, chunk, size, written);
+            }
+            enqueue(inFlight, END, written);
+            written.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ExecutionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Batch failed", cause);
+        }
+        return games;
+    }
+
+    private void submit(BlockingQueue<Future<String>> inFlight, String[] lines, int size,
+            CompletableFuture<Void> written) {
+        enqueue(inFlight, workers.submit(() -> solveChunk(lines, size)), written);
+    }
+
+    // Blocks while the queue is full, which is the backpressure; gives up if the writer has died
+    private static void enqueue(BlockingQueue<Future<String>> inFlight, Future<String> chunk,
+            CompletableFuture<Void> written) {
+        try {
+            while (!inFlight.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                if (written.isDone()) {
+                    written.join();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private String solveChunk(String[] lines, int size) {
+        SolverGame game = games.get();
+        StringBuilder out = new StringBuilder(size * 12);
+        for (int i = 0; i < size; i++) {
+            out.append(solve(game, lines[i])).append('\n');
+        }
+        return out.toString();
+    }
+
+    static String solve(SolverGame game, String line) {
+        game.reset();
+        WordleSolver solver = game.solver();
+        int wordLength = solver.getWordLength();
+
+        int pos = 0;
+        int end = line.length();
+        while (true) {
+            while (pos < end && line.charAt(pos) <= ' ') {
+                pos++;
+            }
+            if (pos == end) {
+                break;
+            }
+            int guessEnd = tokenEnd(line, pos);
+            String guess = line.substring(pos, guessEnd).toLowerCase(Locale.ROOT);
+            pos = guessEnd;
+            while (pos < end && line.charAt(pos) <= ' ') {
+                pos++;
+            }
+            if (pos == end) {
+                return "ERR missing feedback for " + guess;
+            }
+            int feedbackEnd = tokenEnd(line, pos);
+            String feedback = line.substring(pos, feedbackEnd).toUpperCase(Locale.ROOT);
+            pos = feedbackEnd;
+
+            if (guess.length() != wordLength || !isWord(guess)) {
+                return "ERR bad guess " + guess;
+            }
+            if (feedback.length() != wordLength || !isFeedback(feedback)) {
+                return "ERR bad feedback " + feedback;
+            }
+            if (game.replay(guess, feedback)) {
+                return "SOLVED " + guess + " " + game.guessCount();
+            }
+            if (solver.getPossibleWords().isEmpty()) {
+                return "FAILED no possible words remain";
+            }
+        }
+        String guess = game.nextGuess();
+        return guess + " " + solver.getPossibleWords().size();
+    }
+
+    private static int tokenEnd(String line, int pos) {
+        while (pos < line.length() && line.charAt(pos) > ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isWord(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFeedback(String feedback) {
+        for (int i = 0; i < feedback.length(); i++) {
+            char c = feedback.charAt(i);
+            if (c != 'G' && c != 'Y' && c != 'X') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dictionaryPath = "words_alpha_size_5.txt";
+        String answersPath = null;
+        String matrixPath = null;
+        String treePath = null;
+        boolean hardMode = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+        String inputPath = "-";
+        String outputPath = "-";
+        boolean inputSet = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("--threads".equals(args[i])) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("--chunk".equals(args[i])) {
+                chunkSize = Integer.parseInt(args[++i]);
+            } else if ("--dictionary".equals(args[i])) {
+                dictionaryPath = args[++i];
+            } else if ("--answers".equals(args[i])) {
+                answersPath = args[++i];
+            } else if ("--matrix".equals(args[i])) {
+                matrixPath = args[++i];
+            } else if ("--tree".equals(args[i])) {
+                treePath = args[++i];
+            } else if ("--hard".equals(args[i])) {
+                hardMode = true;
+            } else if (!inputSet) {
+                inputPath = args[i];
+                inputSet = true;
+            } else {
+                outputPath = args[i];
+            }
+        }
+
+        DictionaryIndex index = DictionaryIndex.load(dictionaryPath);
+        DictionaryIndex answers = answersPath == null ? index
+                : DictionaryIndex.loadAnswers(answersPath, index.wordLength());
+        FeedbackMatrix matrix = matrixPath == null ? null
+                : FeedbackMatrix.loadOrBuild(index.words(), Paths.get(matrixPath));
+        DecisionTree tree = treePath == null ? null : DecisionTree.load(Paths.get(treePath), index);
+        boolean hard = hardMode;
+
+        BatchSolver batch = new BatchSolver(threads, chunkSize, () -> {
+            WordleSolver solver = new WordleSolver(index, answers);
+            solver.useFeedbackMatrix(matrix);
+            solver.setHardMode(hard);
+            return new SolverGame(solver, tree);
+        });
+        long start = System.nanoTime();
+        long games;
+        try (BufferedReader in = "-".equals(inputPath)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII), 1 << 16)
+                : Files.newBufferedReader(Paths.get(inputPath), StandardCharsets.US_ASCII);
+                Writer out = "-".equals(outputPath)
+                        ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16)
+                        : Files.newBufferedWriter(Paths.get(outputPath), StandardCharsets.US_ASCII)) {
+            games = batch.run(in, out);
+        } finally {
+            batch.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d games in %.2fs (%.0f games/s) on %d threads%n", games, seconds, games / seconds,
+                threads);
+    }
+}
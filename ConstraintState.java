@@ -0,0 +1,242 @@
+import java.util.*;
+
+// Everything the feedback so far has revealed, packed into one long[]: a word per position, then the per-letter
+// minimum and maximum counts. Applying feedback journals the previous words first, so undo() is a copy back and a
+// fork is two array copies. Nothing is allocated per turn once the journal has room.
+public final class ConstraintState {
+    public static final int UNBOUNDED = 15; // Max count of a letter no feedback has capped yet
+
+    // Position word layout: gray letters, yellow letters, then the green letter + 1 (0 while unknown)
+    private static final int YELLOW_SHIFT = 26;
+    private static final int KNOWN_SHIFT = 52;
+    private static final long LETTER_MASK = (1L << 26) - 1;
+
+    // Count words: 13 letters of 4 bits each, so two longs cover the alphabet
+    private static final int LETTERS_PER_WORD = 13;
+    private static final int INITIAL_TURNS = 8;
+    private static final long ALL_UNBOUNDED = allUnbounded();
+
+    private final int wordLength;
+    private final int stride;
+    private final long[] state;
+    private long[] journal;
+    private int depth;
+
+    public ConstraintState(int wordLength) {
+        if (wordLength >= UNBOUNDED) {
+            throw new IllegalArgumentException("Word length must be below " + UNBOUNDED + ": " + wordLength);
+        }
+        this.wordLength = wordLength;
+        this.stride = wordLength + 4;
+        this.state = new long[stride];
+        this.journal = new long[stride * INITIAL_TURNS];
+        clear();
+    }
+
+    private ConstraintState(ConstraintState other) {
+        this.wordLength = other.wordLength;
+        this.stride = other.stride;
+        this.state = other.state.clone();
+        this.journal = Arrays.copyOf(other.journal, Math.max(other.depth, INITIAL_TURNS) * stride);
+        this.depth = other.depth;
+    }
+
+    // Independent copy, history included, for what-if exploration
+    public ConstraintState fork() {
+        return new ConstraintState(this);
+    }
+
+    // Takes over another state's constraints and history, reusing this state's arrays where they fit
+    public void copyFrom(ConstraintState other) {
+        if (other.wordLength != wordLength) {
+            throw new IllegalArgumentException("Constraints are for " + other.wordLength + "-letter words");
+        }
+        System.arraycopy(other.state, 0, state, 0, stride);
+        if (journal.length < other.depth * stride) {
+            journal = new long[other.journal.length];
+        }
+        System.arraycopy(other.journal, 0, journal, 0, other.depth * stride);
+        depth = other.depth;
+    }
+
+    public void clear() {
+        Arrays.fill(state, 0L);
+        state[wordLength + 2] = ALL_UNBOUNDED;
+        state[wordLength + 3] = ALL_UNBOUNDED;
+        depth = 0;
+    }
+
+    private static long allUnbounded() {
+        long unbounded = 0;
+        for (int i = 0; i < LETTERS_PER_WORD; i++) {
+            unbounded |= (long) UNBOUNDED << (i * 4);
+        }
+        return unbounded;
+    }
+
+    public void apply(String guess, String feedback) {
+        if (guess.length() != wordLength || feedback.length() != wordLength) {
+            throw new IllegalArgumentException("Expected " + wordLength + " letters: " + guess + " " + feedback);
+        }
+        if ((depth + 1) * stride > journal.length) {
+            journal = Arrays.copyOf(journal, journal.length * 2);
+        }
+        System.arraycopy(state, 0, journal, depth * stride, stride);
+        depth++;
+
+        long guessed = 0; // Letters in the guess
+        for (int i = 0; i < wordLength; i++) {
+            int letter = guess.charAt(i) - 'a';
+            long bit = 1L << letter;
+            guessed |= bit;
+
+            char fb = feedback.charAt(i);
+            if (fb == 'G') {
+                state[i] = state[i] & ~(0x1FL << KNOWN_SHIFT) | (long) (letter + 1) << KNOWN_SHIFT;
+            } else if (fb == 'Y') {
+                state[i] |= bit << YELLOW_SHIFT;
+            } else if (fb == 'X') {
+                state[i] |= bit;
+            }
+        }
+
+        for (long letters = guessed; letters != 0; letters &= letters - 1) {
+            int letter = Long.numberOfTrailingZeros(letters);
+            int count = 0;
+            int matches = 0;
+            for (int i = 0; i < wordLength; i++) {
+                if (guess.charAt(i) - 'a' == letter) {
+                    count++;
+                    char fb = feedback.charAt(i);
+                    if (fb == 'G' || fb == 'Y') {
+                        matches++;
+                    }
+                }
+            }
+            if (matches > minCount(letter)) {
+                setCount(wordLength, letter, matches);
+            }
+            if (matches < count && matches < maxCount(letter)) {
+                setCount(wordLength + 2, letter, matches);
+            }
+        }
+    }
+
+    // Rolls back the last apply; false when there is nothing left to undo
+    public boolean undo() {
+        if (depth == 0) {
+            return false;
+        }
+        depth--;
+        System.arraycopy(journal, depth * stride, state, 0, stride);
+        return true;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int wordLength() {
+        return wordLength;
+    }
+
+    // Green letter at position (0-25), or -1 while unknown
+    public int knownLetter(int position) {
+        return (int) (state[position] >>> KNOWN_SHIFT & 0x1F) - 1;
+    }
+
+    // Letters marked gray at this position, one bit per letter
+    public int grayMask(int position) {
+        return (int) (state[position] & LETTER_MASK);
+    }
+
+    public int yellowMask(int position) {
+        return (int) (state[position] >>> YELLOW_SHIFT & LETTER_MASK);
+    }
+
+    public int yellowLetters() {
+        int letters = 0;
+        for (int i = 0; i < wordLength; i++) {
+            letters |= yellowMask(i);
+        }
+        return letters;
+    }
+
+    public int minCount(int letter) {
+        return count(wordLength, letter);
+    }
+
+    // UNBOUNDED until a gray copy of the letter caps it
+    public int maxCount(int letter) {
+        return count(wordLength + 2, letter);
+    }
+
+    private int count(int base, int letter) {
+        return (int) (state[base + letter / LETTERS_PER_WORD] >>> (letter % LETTERS_PER_WORD * 4) & 0xF);
+    }
+
+    private void setCount(int base, int letter, int count) {
+        int word = base + letter / LETTERS_PER_WORD;
+        int shift = letter % LETTERS_PER_WORD * 4;
+        state[word] = state[word] & ~(0xFL << shift) | (long) count << shift;
+    }
+
+    // Narrows candidates to the words consistent with every constraint
+    public void filter(WordBitsets bitsets, long[] candidates) {
+        for (int i = 0; i < wordLength; i++) {
+            int known = knownLetter(i);
+            if (known >= 0) {
+                WordBitsets.and(candidates, bitsets.letterAt(i, known));
+            }
+            for (int excluded = grayMask(i) | yellowMask(i); excluded != 0; excluded &= excluded - 1) {
+                WordBitsets.andNot(candidates, bitsets.letterAt(i, Integer.numberOfTrailingZeros(excluded)));
+            }
+        }
+
+        // Yellows raise the minimum count, so required letters are covered here too
+        applyMinCounts(bitsets, candidates);
+        for (int w = 0; w < 2; w++) {
+            // Capped letters are the nibbles that differ from UNBOUNDED
+            for (long capped = state[wordLength + 2 + w] ^ ALL_UNBOUNDED; capped != 0; ) {
+                int shift = Long.numberOfTrailingZeros(capped) & ~3;
+                int max = UNBOUNDED ^ (int) (capped >>> shift & 0xF);
+                capped &= ~(0xFL << shift);
+                WordBitsets.andNot(candidates, bitsets.letterAtLeast(w * LETTERS_PER_WORD + shift / 4, max + 1));
+            }
+        }
+    }
+
+    // Skips straight to the letters with a nonzero minimum instead of reading all 26 counts
+    private void applyMinCounts(WordBitsets bitsets, long[] words) {
+        for (int w = 0; w < 2; w++) {
+            for (long mins = state[wordLength + w]; mins != 0; ) {
+                int shift = Long.numberOfTrailingZeros(mins) & ~3;
+                int min = (int) (mins >>> shift & 0xF);
+                mins &= ~(0xFL << shift);
+                WordBitsets.and(words, bitsets.letterAtLeast(w * LETTERS_PER_WORD + shift / 4, min));
+            }
+        }
+    }
+
+    // Hard-mode pool: revealed greens stay in place and revealed letters are used at least as often
+    public void filterHardMode(WordBitsets bitsets, long[] pool) {
+        for (int i = 0; i < wordLength; i++) {
+            int known = knownLetter(i);
+            if (known >= 0) {
+                WordBitsets.and(pool, bitsets.letterAt(i, known));
+            }
+        }
+        applyMinCounts(bitsets, pool);
+    }
+
+    // Only the current constraints take part; two states that reveal the same things are equal
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ConstraintState && Arrays.equals(state, ((ConstraintState) o).state);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(state);
+    }
+}
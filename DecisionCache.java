@@ -0,0 +1,168 @@
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU of guess decisions shared by every solver. Keys are 128-bit fingerprints of the candidate set
+// plus whatever else the strategy reads, so two games that reach the same state share one computation.
+public final class DecisionCache {
+    public static final int DECISION = 1;
+    public static final int INFORMATION_GAIN = 2;
+    public static final int ENTROPY = 3;
+    public static final int EXACT = 4;
+    public static final int SPLITTING = 5;
+    public static final int ANYTIME = 6;
+
+    private static final int SEGMENTS = 16;
+    private static final DecisionCache SHARED = new DecisionCache(Integer.getInteger("wordle.decisionCacheSize", 65536));
+
+    private final int capacity;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public DecisionCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        int perSegment = (this.capacity + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment, evictions);
+        }
+    }
+
+    public static DecisionCache shared() {
+        return SHARED;
+    }
+
+    public String get(Key key) {
+        if (capacity == 0) {
+            misses.increment();
+            return null;
+        }
+        Segment segment = segmentFor(key);
+        String guess;
+        synchronized (segment) {
+            guess = segment.get(key);
+        }
+        if (guess != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return guess;
+    }
+
+    public void put(Key key, String guess) {
+        if (capacity == 0) {
+            return;
+        }
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, guess);
+        }
+    }
+
+    private Segment segmentFor(Key key) {
+        return segments[(key.hashCode() >>> 28) & (SEGMENTS - 1)];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    private static final class Segment extends LinkedHashMap<Key, String> {
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public static final class Key {
+        private final int strategy;
+        private final long dictionary;
+        private long h1 = 0x6A09E667F3BCC908L;
+        private long h2 = 0xBB67AE8584CAA73BL;
+
+        public Key(int strategy, long dictionaryFingerprint) {
+            this.strategy = strategy;
+            this.dictionary = dictionaryFingerprint;
+        }
+
+        // Two independently mixed lanes; only meant to be fed while the key is being built
+        public Key add(long value) {
+            h1 = (h1 ^ value) * 0x9E3779B97F4A7C15L;
+            h1 ^= h1 >>> 29;
+            h2 = Long.rotateLeft(h2 + value * 0xC2B2AE3D27D4EB4FL, 31) * 0x165667B19E3779F9L;
+            return this;
+        }
+
+        public Key add(long[] values) {
+            for (long value : values) {
+                add(value);
+            }
+            return add(values.length);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return strategy == other.strategy && dictionary == other.dictionary && h1 == other.h1 && h2 == other.h2;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = h1 ^ Long.rotateLeft(h2, 17) ^ dictionary ^ strategy;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,310 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Supplier;
+
+public final class DecisionTree {
+    public static final int ROOT = 0;
+    public static final int NONE = -1;
+
+    private static final int MAGIC = 0x57445431; // "WDT1"
+    private static final int MAX_DEPTH = 12;
+
+    private final DictionaryIndex index;
+    private final int[] guesses;
+    private final int[] childStart;
+    private final int[] childCount;
+    private final byte[] edgePattern;
+    private final int[] edgeTarget;
+
+    private DecisionTree(DictionaryIndex index, int[] guesses, int[] childStart, int[] childCount,
+            byte[] edgePattern, int[] edgeTarget) {
+        this.index = index;
+        this.guesses = guesses;
+        this.childStart = childStart;
+        this.childCount = childCount;
+        this.edgePattern = edgePattern;
+        this.edgeTarget = edgeTarget;
+    }
+
+    public int nodeCount() {
+        return guesses.length;
+    }
+
+    public String guess(int node) {
+        return index.word(guesses[node]);
+    }
+
+    public int child(int node, int pattern) {
+        // Edges of a node are stored sorted by pattern
+        int lo = childStart[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int p = edgePattern[mid] & 0xFF;
+            if (p == pattern) {
+                return edgeTarget[mid];
+            } else if (p < pattern) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return NONE;
+    }
+
+    public String nextGuess(List<String> feedbackHistory) {
+        int node = ROOT;
+        for (String feedback : feedbackHistory) {
+            node = child(node, FeedbackMatrix.encode(feedback));
+            if (node == NONE) {
+                return null;
+            }
+        }
+        return guess(node);
+    }
+
+    public static DecisionTree build(DictionaryIndex index, Supplier<WordleSolver> solvers, int[] solvedAt) {
+        if (index.wordLength() != FeedbackMatrix.WORD_LENGTH) {
+            throw new IllegalArgumentException("Decision trees support " + FeedbackMatrix.WORD_LENGTH
+                    + "-letter dictionaries only");
+        }
+        BuildTask root = new BuildTask(solvers, new ConstraintState(index.wordLength()), new HashSet<>(), 0,
+                new AtomicIntegerArray(solvedAt.length));
+        Node tree = ForkJoinPool.commonPool().invoke(root);
+        for (int i = 0; i < solvedAt.length; i++) {
+            solvedAt[i] = root.solvedAt.get(i);
+        }
+
+        Flattener flattener = new Flattener();
+        flattener.add(tree);
+        return flattener.toTree(index);
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(index.size());
+            out.writeLong(index.fingerprint());
+            out.writeInt(guesses.length);
+            out.writeInt(edgeTarget.length);
+            writeNode(out, ROOT);
+        }
+    }
+
+    private void writeNode(DataOutputStream out, int node) throws IOException {
+        out.writeInt(guesses[node]);
+        out.writeByte(childCount[node]);
+        for (int e = childStart[node]; e < childStart[node] + childCount[node]; e++) {
+            out.writeByte(edgePattern[e]);
+            writeNode(out, edgeTarget[e]);
+        }
+    }
+
+    public static DecisionTree load(Path file, DictionaryIndex index) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a decision tree file: " + file);
+            }
+            if (in.readInt() != index.size() || in.readLong() != index.fingerprint()) {
+                throw new IOException("Decision tree was built for a different dictionary: " + file);
+            }
+
+            Reader reader = new Reader(in, in.readInt(), in.readInt());
+            reader.readNode();
+            return new DecisionTree(index, reader.guesses, reader.childStart, reader.childCount,
+                    reader.edgePattern, reader.edgeTarget);
+        }
+    }
+
+    private static final class Node {
+        final int guessId;
+        final byte[] patterns;
+        final Node[] children;
+
+        Node(int guessId, byte[] patterns, Node[] children) {
+            this.guessId = guessId;
+            this.patterns = patterns;
+            this.children = children;
+        }
+    }
+
+    private static final class BuildTask extends RecursiveTask<Node> {
+        private final Supplier<WordleSolver> solvers;
+        private final ConstraintState constraints; // Everything revealed on the way to this node
+        private final Set<Character> testedLetters;
+        private final int depth;
+        private final AtomicIntegerArray solvedAt;
+
+        BuildTask(Supplier<WordleSolver> solvers, ConstraintState constraints, Set<Character> testedLetters,
+                int depth, AtomicIntegerArray solvedAt) {
+            this.solvers = solvers;
+            this.constraints = constraints;
+            this.testedLetters = testedLetters;
+            this.depth = depth;
+            this.solvedAt = solvedAt;
+        }
+
+        @Override
+        protected Node compute() {
+            WordleSolver solver = solvers.get();
+            solver.setConstraints(constraints);
+
+            Set<Character> tested = new HashSet<>(testedLetters);
+            String guess = solver.chooseGuess(depth, tested);
+
+            int[] partition = new int[FeedbackMatrix.PATTERNS];
+            for (String solution : solver.getPossibleWords()) {
+                partition[FeedbackMatrix.encode(guess, solution)]++;
+            }
+
+            if (partition[FeedbackMatrix.ALL_GREEN] > 0 && depth + 1 < solvedAt.length()) {
+                solvedAt.incrementAndGet(depth + 1);
+            }
+
+            List<BuildTask> tasks = new ArrayList<>();
+            List<Integer> patterns = new ArrayList<>();
+            for (int p = 0; p < FeedbackMatrix.ALL_GREEN; p++) {
+                if (partition[p] == 0 || depth + 1 >= MAX_DEPTH) {
+                    continue;
+                }
+                ConstraintState branch = constraints.fork();
+                branch.apply(guess, FeedbackMatrix.decode(p));
+                tasks.add(new BuildTask(solvers, branch, tested, depth + 1, solvedAt));
+                patterns.add(p);
+            }
+            invokeAll(tasks);
+
+            byte[] edgePatterns = new byte[tasks.size()];
+            Node[] children = new Node[tasks.size()];
+            for (int i = 0; i < children.length; i++) {
+                edgePatterns[i] = (byte) (int) patterns.get(i);
+                children[i] = tasks.get(i).join();
+            }
+            return new Node(solver.getIndex().idOf(guess), edgePatterns, children);
+        }
+    }
+
+    private static final class Flattener {
+        private final List<Node> nodes = new ArrayList<>();
+        private final Map<Node, Integer> ids = new IdentityHashMap<>();
+
+        void add(Node node) {
+            ids.put(node, nodes.size());
+            nodes.add(node);
+            for (Node child : node.children) {
+                add(child);
+            }
+        }
+
+        DecisionTree toTree(DictionaryIndex index) {
+            int n = nodes.size();
+            int[] guesses = new int[n];
+            int[] childStart = new int[n];
+            int[] childCount = new int[n];
+            byte[] edgePattern = new byte[n - 1];
+            int[] edgeTarget = new int[n - 1];
+
+            int edge = 0;
+            for (int i = 0; i < n; i++) {
+                Node node = nodes.get(i);
+                guesses[i] = node.guessId;
+                childStart[i] = edge;
+                childCount[i] = node.children.length;
+                for (int c = 0; c < node.children.length; c++, edge++) {
+                    edgePattern[edge] = node.patterns[c];
+                    edgeTarget[edge] = ids.get(node.children[c]);
+                }
+            }
+            return new DecisionTree(index, guesses, childStart, childCount, edgePattern, edgeTarget);
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+        final int[] guesses;
+        final int[] childStart;
+        final int[] childCount;
+        final byte[] edgePattern;
+        final int[] edgeTarget;
+        private int nextNode;
+        private int nextEdge;
+
+        Reader(DataInputStream in, int nodes, int edges) {
+            this.in = in;
+            this.guesses = new int[nodes];
+            this.childStart = new int[nodes];
+            this.childCount = new int[nodes];
+            this.edgePattern = new byte[edges];
+            this.edgeTarget = new int[edges];
+        }
+
+        int readNode() throws IOException {
+            int node = nextNode++;
+            guesses[node] = in.readInt();
+            int children = in.readUnsignedByte();
+            childStart[node] = nextEdge;
+            childCount[node] = children;
+            nextEdge += children;
+
+            for (int c = 0; c < children; c++) {
+                int edge = childStart[node] + c;
+                edgePattern[edge] = in.readByte();
+                edgeTarget[edge] = readNode();
+            }
+            return node;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dictionaryPath = "words_alpha_size_5.txt";
+        String output = "decision_tree.bin";
+        String matrixPath = null;
+        int entropyParallelism = 0;
+        for (int i = 0; i < args.length; i++) {
+            if ("--matrix".equals(args[i])) {
+                matrixPath = args[++i];
+            } else if ("--entropy".equals(args[i])) {
+                entropyParallelism = i + 1 < args.length && args[i + 1].matches("\\d+")
+                        ? Integer.parseInt(args[++i]) : Runtime.getRuntime().availableProcessors();
+            } else if ("--dictionary".equals(args[i])) {
+                dictionaryPath = args[++i];
+            } else {
+                output = args[i];
+            }
+        }
+
+        DictionaryIndex index = DictionaryIndex.load(dictionaryPath);
+        FeedbackMatrix matrix = matrixPath == null ? null
+                : FeedbackMatrix.loadOrBuild(index.words(), Paths.get(matrixPath));
+        EntropyGuessPicker entropyPicker = entropyParallelism > 0 ? new EntropyGuessPicker(entropyParallelism) : null;
+
+        long start = System.nanoTime();
+        int[] solvedAt = new int[MAX_DEPTH + 1];
+        DecisionTree tree = build(index, () -> {
+            WordleSolver solver = new WordleSolver(index);
+            solver.useFeedbackMatrix(matrix);
+            solver.useEntropyPicker(entropyPicker);
+            return solver;
+        }, solvedAt);
+        tree.write(Paths.get(output));
+
+        int solved = 0;
+        long totalGuesses = 0;
+        for (int depth = 1; depth < solvedAt.length; depth++) {
+            solved += solvedAt[depth];
+            totalGuesses += (long) depth * solvedAt[depth];
+        }
+        System.out.printf("Built %d nodes in %.1fs -> %s%n", tree.nodeCount(),
+                (System.nanoTime() - start) / 1e9, output);
+        System.out.printf("Solved %d/%d words, average %.3f guesses%n", solved, index.size(),
+                solved > 0 ? (double) totalGuesses / solved : 0);
+        for (int depth = 1; depth < solvedAt.length; depth++) {
+            if (solvedAt[depth] > 0) {
+                System.out.printf("Guess %d: %d%n", depth, solvedAt[depth]);
+            }
+        }
+    }
+}
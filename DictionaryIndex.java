@@ -0,0 +1,231 @@
+import java.io.*;
+import java.util.*;
+
+public final class DictionaryIndex {
+    private final List<String> words;
+    private final int wordLength;
+    private final Map<String, Integer> ids;
+    private final int[] letterFrequency = new int[26];
+    private final double[] scores;
+    private final double[] weights; // Answer frequencies; null when every word is equally likely
+    private final BitSet doubleLetters;
+    private final int[] packedWords; // Only for 5-letter words, the width the feedback kernel handles
+    private final WordBitsets bitsets;
+    private final long fingerprint;
+
+    public DictionaryIndex(List<String> dictionary) {
+        this(dictionary, null);
+    }
+
+    // More frequent words rank first, ahead of the letter-frequency score
+    public DictionaryIndex(List<String> dictionary, double[] weights) {
+        List<String> words = List.copyOf(dictionary);
+        int n = words.size();
+        if (weights != null && weights.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " weights, got " + weights.length);
+        }
+        this.words = words;
+        this.weights = weights == null ? null : weights.clone();
+        this.wordLength = words.isEmpty() ? FeedbackMatrix.WORD_LENGTH : words.get(0).length();
+        this.fingerprint = weightedFingerprint(FeedbackMatrix.fingerprint(words), weights);
+        this.ids = new HashMap<>(n * 2);
+        this.scores = new double[n];
+        this.doubleLetters = new BitSet(n);
+        this.packedWords = wordLength == FeedbackMatrix.WORD_LENGTH ? new int[n] : null;
+
+        boolean[] used = new boolean[26];
+        for (int id = 0; id < n; id++) {
+            String word = words.get(id);
+            if (word.length() != wordLength) {
+                throw new IllegalArgumentException("Mixed word lengths in dictionary: " + word);
+            }
+            ids.put(word, id);
+            if (packedWords != null) {
+                packedWords[id] = PackedWords.pack(word);
+            }
+
+            Arrays.fill(used, false);
+            for (int i = 0; i < wordLength; i++) {
+                int idx = word.charAt(i) - 'a';
+                if (used[idx]) {
+                    doubleLetters.set(id);
+                } else {
+                    letterFrequency[idx]++;
+                    used[idx] = true;
+                }
+            }
+        }
+
+        for (int id = 0; id < n; id++) {
+            scores[id] = calculateWordScore(words.get(id), used);
+        }
+
+        this.bitsets = new WordBitsets(words, ids, wordLength, (w1, w2) -> {
+            int id1 = ids.get(w1);
+            int id2 = ids.get(w2);
+            if (weights != null && weights[id1] != weights[id2]) {
+                return Double.compare(weights[id2], weights[id1]);
+            }
+            boolean d1 = doubleLetters.get(id1);
+            boolean d2 = doubleLetters.get(id2);
+
+            if (d1 != d2) {
+                return d1 ? 1 : -1;
+            }
+            return Double.compare(scores[id2], scores[id1]);
+        });
+    }
+
+    // Packed dictionaries ship the scores and the ranking, so nothing is recounted or re-sorted here
+    DictionaryIndex(int[] packed, int[] frequency, double[] scores, int[] rankOrder, long fingerprint) {
+        int n = packed.length;
+        String[] unpacked = new String[n];
+        this.wordLength = FeedbackMatrix.WORD_LENGTH;
+        this.weights = null;
+        this.fingerprint = fingerprint;
+        this.ids = new HashMap<>(n * 2);
+        this.scores = scores;
+        this.doubleLetters = new BitSet(n);
+        this.packedWords = packed;
+        System.arraycopy(frequency, 0, letterFrequency, 0, 26);
+
+        for (int id = 0; id < n; id++) {
+            int word = packed[id];
+            unpacked[id] = PackedWords.unpack(word, wordLength);
+            ids.put(unpacked[id], id);
+            int seen = 0;
+            for (int i = 0; i < wordLength; i++) {
+                int bit = 1 << PackedWords.letterAt(word, i);
+                if ((seen & bit) != 0) {
+                    doubleLetters.set(id);
+                }
+                seen |= bit;
+            }
+        }
+        this.words = List.of(unpacked);
+        this.bitsets = new WordBitsets(unpacked, packed, rankOrder, ids, wordLength);
+    }
+
+    public static DictionaryIndex load(String dictionaryPath) throws IOException {
+        if (dictionaryPath.endsWith(PackedDictionary.EXTENSION)) {
+            return WordleSolver.loadPackedDictionary(dictionaryPath);
+        }
+        return new DictionaryIndex(WordleSolver.loadDictionary(dictionaryPath));
+    }
+
+    // Answer list: one word per line, optionally followed by a frequency weight ("cigar 1523" or "cigar,1523").
+    // Words missing a weight count as 1; a list without any weights stays unweighted.
+    public static DictionaryIndex loadAnswers(String answersPath, int wordLength) throws IOException {
+        List<String> words = new ArrayList<>(4096);
+        List<Double> weights = new ArrayList<>(4096);
+        boolean weighted = false;
+        try (BufferedReader reader = new BufferedReader(new FileReader(answersPath), 8192)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.trim().split("[\\s,]+");
+                String word = fields[0].toLowerCase(Locale.ROOT);
+                if (word.length() != wordLength) {
+                    continue;
+                }
+                words.add(word);
+                if (fields.length > 1) {
+                    weights.add(Double.parseDouble(fields[1]));
+                    weighted = true;
+                } else {
+                    weights.add(1.0);
+                }
+            }
+        }
+        if (!weighted) {
+            return new DictionaryIndex(words);
+        }
+        double[] values = new double[weights.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = weights.get(i);
+        }
+        return new DictionaryIndex(words, values);
+    }
+
+    private static long weightedFingerprint(long wordsFingerprint, double[] weights) {
+        if (weights == null) {
+            return wordsFingerprint;
+        }
+        long h = wordsFingerprint;
+        for (double weight : weights) {
+            h = (h ^ Double.doubleToLongBits(weight)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    private double calculateWordScore(String word, boolean[] used) {
+        Arrays.fill(used, false);
+        double score = 0.0;
+
+        for (int i = 0; i < wordLength; i++) {
+            int idx = word.charAt(i) - 'a';
+            if (!used[idx]) {
+                score += Math.log(letterFrequency[idx] + 1);
+                used[idx] = true;
+            }
+        }
+        return score;
+    }
+
+    public List<String> words() {
+        return words;
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    public int wordLength() {
+        return wordLength;
+    }
+
+    public String word(int id) {
+        return words.get(id);
+    }
+
+    public int idOf(String word) {
+        Integer id = ids.get(word);
+        return id == null ? -1 : id;
+    }
+
+    public double score(int id) {
+        return scores[id];
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    public double weight(int id) {
+        return weights == null ? 1.0 : weights[id];
+    }
+
+    public boolean hasDoubleLetters(int id) {
+        return doubleLetters.get(id);
+    }
+
+    public int packedWord(int id) {
+        return packedWords[id];
+    }
+
+    // Shared backing array for the feedback kernel; callers must not modify it
+    int[] packedWords() {
+        return packedWords;
+    }
+
+    public int letterFrequency(int letter) {
+        return letterFrequency[letter];
+    }
+
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    public WordBitsets bitsets() {
+        return bitsets;
+    }
+}
@@ -0,0 +1,166 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+public final class EntropyGuessPicker {
+    private static final int SPLIT_THRESHOLD = 128;
+
+    private final ForkJoinPool pool;
+
+    public EntropyGuessPicker(int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public String pick(List<String> guessPool, List<String> candidates, FeedbackMatrix matrix) {
+        if (candidates.size() <= 2) {
+            return candidates.get(0);
+        }
+
+        Set<String> candidateSet = new HashSet<>(candidates);
+        boolean[] isCandidate = new boolean[guessPool.size()];
+        for (int i = 0; i < isCandidate.length; i++) {
+            isCandidate[i] = candidateSet.contains(guessPool.get(i));
+        }
+
+        int[] guessIds = null;
+        int[] solutionIds = null;
+        if (matrix == null) {
+            // Without a matrix, score with the packed-word kernel
+            guessIds = new int[guessPool.size()];
+            for (int i = 0; i < guessIds.length; i++) {
+                guessIds[i] = PackedWords.pack(guessPool.get(i));
+            }
+            solutionIds = new int[candidates.size()];
+            for (int i = 0; i < solutionIds.length; i++) {
+                solutionIds[i] = PackedWords.pack(candidates.get(i));
+            }
+        } else {
+            guessIds = new int[guessPool.size()];
+            for (int i = 0; i < guessIds.length; i++) {
+                guessIds[i] = matrix.indexOf(guessPool.get(i));
+            }
+            solutionIds = new int[candidates.size()];
+            for (int i = 0; i < solutionIds.length; i++) {
+                solutionIds[i] = matrix.indexOf(candidates.get(i));
+            }
+        }
+
+        Scoring scoring = new Scoring(guessPool, candidates, isCandidate, matrix, guessIds, solutionIds);
+        Best best = pool.invoke(new ScoreTask(scoring, 0, guessPool.size()));
+        return guessPool.get(best.index);
+    }
+
+    public static double entropy(int[] histogram, int total) {
+        double sum = 0.0;
+        for (int count : histogram) {
+            if (count > 1) {
+                sum += count * Math.log(count);
+            }
+        }
+        return (Math.log(total) - sum / total) / Math.log(2);
+    }
+
+    private static final class Scoring {
+        final List<String> guessPool;
+        final List<String> candidates;
+        final boolean[] isCandidate;
+        final FeedbackMatrix matrix;
+        final int[] guessIds; // Matrix ids, or packed words when there is no matrix
+        final int[] solutionIds;
+
+        Scoring(List<String> guessPool, List<String> candidates, boolean[] isCandidate,
+                FeedbackMatrix matrix, int[] guessIds, int[] solutionIds) {
+            this.guessPool = guessPool;
+            this.candidates = candidates;
+            this.isCandidate = isCandidate;
+            this.matrix = matrix;
+            this.guessIds = guessIds;
+            this.solutionIds = solutionIds;
+        }
+
+        double score(int guessIndex, int[] histogram, int[] codes) {
+            Arrays.fill(histogram, 0);
+            if (matrix != null) {
+                int guessId = guessIds[guessIndex];
+                for (int solutionId : solutionIds) {
+                    histogram[matrix.feedback(guessId, solutionId)]++;
+                }
+            } else {
+                FeedbackKernel.get().feedback(guessIds[guessIndex], solutionIds, solutionIds.length, codes);
+                for (int i = 0; i < solutionIds.length; i++) {
+                    histogram[codes[i]]++;
+                }
+            }
+            return entropy(histogram, candidates.size());
+        }
+    }
+
+    private static final class Best {
+        final int index;
+        final double entropy;
+        final boolean candidate;
+
+        Best(int index, double entropy, boolean candidate) {
+            this.index = index;
+            this.entropy = entropy;
+            this.candidate = candidate;
+        }
+
+        Best max(Best other) {
+            if (other == null || beats(index, entropy, candidate, other)) {
+                return this;
+            }
+            return other;
+        }
+
+        // Higher entropy wins; ties go to possible solutions, then to the earlier word
+        static boolean beats(int index, double entropy, boolean candidate, Best other) {
+            int cmp = Double.compare(entropy, other.entropy);
+            if (cmp != 0) {
+                return cmp > 0;
+            }
+            if (candidate != other.candidate) {
+                return candidate;
+            }
+            return index < other.index;
+        }
+    }
+
+    private static final class ScoreTask extends RecursiveTask<Best> {
+        private final Scoring scoring;
+        private final int from;
+        private final int to;
+
+        ScoreTask(Scoring scoring, int from, int to) {
+            this.scoring = scoring;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Best compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                int[] histogram = new int[FeedbackMatrix.PATTERNS];
+                int[] codes = new int[scoring.candidates.size()];
+                Best best = null;
+                for (int i = from; i < to; i++) {
+                    double entropy = scoring.score(i, histogram, codes);
+                    boolean candidate = scoring.isCandidate[i];
+                    if (best == null || Best.beats(i, entropy, candidate, best)) {
+                        best = new Best(i, entropy, candidate);
+                    }
+                }
+                return best;
+            }
+
+            int mid = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(scoring, from, mid);
+            left.fork();
+            Best right = new ScoreTask(scoring, mid, to).compute();
+            return left.join().max(right);
+        }
+    }
+}
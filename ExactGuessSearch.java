@@ -0,0 +1,320 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+// Picks the guess that minimises the expected number of guesses over the full remaining game tree.
+// Costs are kept as integer totals (sum of guesses over all candidates) so ties compare exactly.
+public final class ExactGuessSearch {
+    public static final int MAX_SUPPORTED_CANDIDATES = 64; // Candidate subsets are single-long masks
+
+    private static final int EXTRA_GUESSES = 48; // Best-splitting non-candidates added to the guess pool
+
+    private final ForkJoinPool pool;
+    private final int maxCandidates;
+    private final long budgetNanos;
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public ExactGuessSearch(int parallelism, int maxCandidates, long budgetMillis) {
+        if (maxCandidates < 3 || maxCandidates > MAX_SUPPORTED_CANDIDATES) {
+            throw new IllegalArgumentException(
+                    "Exact search handles 3 to " + MAX_SUPPORTED_CANDIDATES + " candidates: " + maxCandidates);
+        }
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.maxCandidates = maxCandidates;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public long getBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(budgetNanos);
+    }
+
+    public boolean accepts(int candidateCount) {
+        return candidateCount > 2 && candidateCount <= maxCandidates;
+    }
+
+    public long searches() {
+        return searches.sum();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    // Returns null when the time budget runs out before the search completes
+    public String pick(List<String> guessPool, List<String> candidates, FeedbackMatrix matrix) {
+        if (!accepts(candidates.size())) {
+            throw new IllegalArgumentException("Candidate count outside the exact search range: " + candidates.size());
+        }
+        searches.increment();
+        long deadline = System.nanoTime() + budgetNanos;
+
+        List<String> guesses = guessList(guessPool, candidates, matrix);
+        int n = candidates.size();
+        int[][] codes = new int[guesses.size()][];
+        for (int g = 0; g < codes.length; g++) {
+            codes[g] = feedbackRow(guesses.get(g), candidates, matrix);
+        }
+
+        int wordLength = candidates.get(0).length();
+        Search search = new Search(codes, n, FeedbackMatrix.patterns(wordLength), deadline);
+        long all = n == 64 ? -1L : (1L << n) - 1;
+        try {
+            int best = pool.invoke(new RootTask(search, all));
+            return best < 0 ? null : guesses.get(best);
+        } catch (BudgetExceeded e) {
+            timeouts.increment();
+            return null;
+        }
+    }
+
+    // Candidates first (in rank order), then the non-candidates that split the candidates into the most groups
+    private static List<String> guessList(List<String> guessPool, List<String> candidates, FeedbackMatrix matrix) {
+        Set<String> candidateSet = new HashSet<>(candidates);
+        int n = candidates.size();
+        int[] row = new int[n];
+        int[] packedCandidates = null;
+        boolean packed = candidates.get(0).length() == FeedbackMatrix.WORD_LENGTH && matrix == null;
+        if (packed) {
+            packedCandidates = new int[n];
+            for (int i = 0; i < n; i++) {
+                packedCandidates[i] = PackedWords.pack(candidates.get(i));
+            }
+        }
+        int[] candidateIds = null;
+        if (matrix != null) {
+            candidateIds = new int[n];
+            for (int i = 0; i < n; i++) {
+                candidateIds[i] = matrix.indexOf(candidates.get(i));
+            }
+        }
+
+        FeedbackKernel kernel = FeedbackKernel.get();
+        Set<Integer> distinct = new HashSet<>();
+        List<int[]> scored = new ArrayList<>(); // {pool index, distinct groups}
+        for (int g = 0; g < guessPool.size(); g++) {
+            String guess = guessPool.get(g);
+            if (candidateSet.contains(guess)) {
+                continue;
+            }
+            if (matrix != null) {
+                int guessId = matrix.indexOf(guess);
+                for (int s = 0; s < n; s++) {
+                    row[s] = matrix.feedback(guessId, candidateIds[s]);
+                }
+            } else if (packed) {
+                kernel.feedback(PackedWords.pack(guess), packedCandidates, n, row);
+            } else {
+                for (int s = 0; s < n; s++) {
+                    row[s] = FeedbackMatrix.encode(guess, candidates.get(s));
+                }
+            }
+            distinct.clear();
+            for (int code : row) {
+                distinct.add(code);
+            }
+            if (distinct.size() > 1) {
+                scored.add(new int[] { g, distinct.size() });
+            }
+        }
+        scored.sort((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+
+        List<String> guesses = new ArrayList<>(candidates);
+        for (int i = 0; i < Math.min(EXTRA_GUESSES, scored.size()); i++) {
+            guesses.add(guessPool.get(scored.get(i)[0]));
+        }
+        return guesses;
+    }
+
+    private static int[] feedbackRow(String guess, List<String> candidates, FeedbackMatrix matrix) {
+        int[] row = new int[candidates.size()];
+        int guessId = matrix != null ? matrix.indexOf(guess) : -1;
+        for (int s = 0; s < row.length; s++) {
+            row[s] = guessId >= 0 ? matrix.feedback(guessId, matrix.indexOf(candidates.get(s)))
+                    : FeedbackMatrix.encode(guess, candidates.get(s));
+        }
+        return row;
+    }
+
+    private static final class BudgetExceeded extends RuntimeException {
+        BudgetExceeded() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class Search {
+        final int[][] codes; // [guess][candidate]
+        final int allGreen;
+        final int patterns;
+        final long deadline;
+        final ConcurrentMap<Long, Integer> memo = new ConcurrentHashMap<>();
+        final ThreadLocal<long[]> buckets;
+
+        Search(int[][] codes, int n, int patterns, long deadline) {
+            this.codes = codes;
+            this.patterns = patterns;
+            this.allGreen = patterns - 1;
+            this.deadline = deadline;
+            this.buckets = ThreadLocal.withInitial(() -> new long[patterns]);
+        }
+
+        // Splits mask by the guess's feedback; returns the non-green groups, largest first
+        long[] partition(int guess, long mask) {
+            long[] bucket = buckets.get();
+            int[] row = codes[guess];
+            int[] touched = new int[Long.bitCount(mask)];
+            int groups = 0;
+            for (long m = mask; m != 0; m &= m - 1) {
+                int s = Long.numberOfTrailingZeros(m);
+                int code = row[s];
+                if (bucket[code] == 0) {
+                    touched[groups++] = code;
+                }
+                bucket[code] |= 1L << s;
+            }
+
+            long[] parts = new long[groups];
+            int count = 0;
+            for (int i = 0; i < groups; i++) {
+                int code = touched[i];
+                if (code != allGreen) {
+                    parts[count++] = bucket[code];
+                }
+                bucket[code] = 0;
+            }
+            // Bigger groups first, so a losing guess gets cut off sooner
+            long[] result = Arrays.copyOf(parts, count);
+            sortBySizeDescending(result);
+            return result;
+        }
+
+        static void sortBySizeDescending(long[] parts) {
+            for (int i = 1; i < parts.length; i++) {
+                long part = parts[i];
+                int size = Long.bitCount(part);
+                int j = i - 1;
+                while (j >= 0 && Long.bitCount(parts[j]) < size) {
+                    parts[j + 1] = parts[j];
+                    j--;
+                }
+                parts[j + 1] = part;
+            }
+        }
+
+        // Best case for a group of k: guess a member that splits the rest into singletons
+        static int lowerBound(long[] parts, int n) {
+            int bound = n;
+            for (long part : parts) {
+                bound += 2 * Long.bitCount(part) - 1;
+            }
+            return bound;
+        }
+
+        // Total guesses over mask when playing guess next, or -1 once the total can no longer beat limit
+        int cost(int guess, long mask, long[] parts, int limit, boolean strict) {
+            int n = Long.bitCount(mask);
+            int remainingBound = lowerBound(parts, n) - n;
+            int total = n;
+            for (long part : parts) {
+                remainingBound -= 2 * Long.bitCount(part) - 1;
+                total += solve(part);
+                int bound = total + remainingBound;
+                if (strict ? bound > limit : bound >= limit) {
+                    return -1;
+                }
+            }
+            return total;
+        }
+
+        // Minimum total guesses to finish every candidate in mask
+        int solve(long mask) {
+            int n = Long.bitCount(mask);
+            if (n == 1) {
+                return 1;
+            }
+            if (n == 2) {
+                return 3;
+            }
+            Integer known = memo.get(mask);
+            if (known != null) {
+                return known;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new BudgetExceeded();
+            }
+
+            int best = Integer.MAX_VALUE;
+            int floor = 2 * n - 1;
+            for (int g = 0; g < codes.length && best > floor; g++) {
+                long[] parts = partition(g, mask);
+                if (parts.length == 1 && parts[0] == mask) {
+                    continue; // Learns nothing
+                }
+                if (lowerBound(parts, n) >= best) {
+                    continue;
+                }
+                int total = cost(g, mask, parts, best, false);
+                if (total >= 0 && total < best) {
+                    best = total;
+                }
+            }
+            memo.put(mask, best);
+            return best;
+        }
+    }
+
+    private static final class RootTask extends RecursiveTask<Integer> {
+        private final Search search;
+        private final long mask;
+
+        RootTask(Search search, long mask) {
+            this.search = search;
+            this.mask = mask;
+        }
+
+        // Each guess is scored in its own task; a shared best lets siblings prune each other
+        @Override
+        protected Integer compute() {
+            int guesses = search.codes.length;
+            AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+            int[] totals = new int[guesses];
+            List<RecursiveAction> tasks = new ArrayList<>(guesses);
+            for (int g = 0; g < guesses; g++) {
+                int guess = g;
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        totals[guess] = -1;
+                        long[] parts = search.partition(guess, mask);
+                        if (parts.length == 1 && parts[0] == mask) {
+                            return;
+                        }
+                        int limit = best.get();
+                        if (Search.lowerBound(parts, Long.bitCount(mask)) > limit) {
+                            return;
+                        }
+                        // Strict pruning keeps every guess that ties the best, so the winner is deterministic
+                        int total = search.cost(guess, mask, parts, limit, true);
+                        totals[guess] = total;
+                        if (total >= 0) {
+                            best.accumulateAndGet(total, Math::min);
+                        }
+                    }
+                });
+            }
+            invokeAll(tasks);
+
+            int winner = -1;
+            for (int g = 0; g < guesses; g++) {
+                if (totals[g] >= 0 && (winner < 0 || totals[g] < totals[winner])) {
+                    winner = g;
+                }
+            }
+            return winner;
+        }
+    }
+}
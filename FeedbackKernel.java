@@ -0,0 +1,62 @@
+public class FeedbackKernel {
+    private static final FeedbackKernel INSTANCE = create();
+
+    FeedbackKernel() {
+    }
+
+    public static FeedbackKernel get() {
+        return INSTANCE;
+    }
+
+    // The vector kernel needs --add-modules jdk.incubator.vector at runtime; without it the scalar loop is used
+    private static FeedbackKernel create() {
+        if (!Boolean.getBoolean("wordle.scalarKernel")) {
+            try {
+                return (FeedbackKernel) Class.forName("VectorFeedbackKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall through to the scalar kernel
+            }
+        }
+        return new FeedbackKernel();
+    }
+
+    public String name() {
+        return "scalar";
+    }
+
+    // Writes the pattern code of guess against solutions[0..count) into codes
+    public void feedback(int guess, int[] solutions, int count, int[] codes) {
+        for (int i = 0; i < count; i++) {
+            codes[i] = feedback(guess, solutions[i]);
+        }
+    }
+
+    public static int feedback(int guess, int solution) {
+        int diff = guess ^ solution;
+        int greens = 0;
+        for (int i = 0; i < 5; i++) {
+            if (((diff >>> (PackedWords.BITS_PER_LETTER * i)) & PackedWords.LETTER_MASK) == 0) {
+                greens |= 1 << i;
+            }
+        }
+
+        int used = greens;
+        int code = 0;
+        int pow = 1;
+        for (int i = 0; i < 5; i++, pow *= 3) {
+            if ((greens & (1 << i)) != 0) {
+                code += 2 * pow;
+                continue;
+            }
+            int g = PackedWords.letterAt(guess, i);
+            for (int j = 0; j < 5; j++) {
+                if ((used & (1 << j)) == 0 && PackedWords.letterAt(solution, j) == g) {
+                    used |= 1 << j;
+                    code += pow;
+                    break;
+                }
+            }
+        }
+        return code;
+    }
+}
@@ -0,0 +1,193 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.IntStream;
+
+public final class FeedbackMatrix {
+    public static final int WORD_LENGTH = 5;
+    public static final int PATTERNS = 243;
+    public static final int ALL_GREEN = PATTERNS - 1;
+
+    private static final int MAGIC = 0x57464d31; // "WFM1"
+    private static final int HEADER_BYTES = 16;
+    private static final String[] DECODED = new String[PATTERNS]; // 5-letter strings are shared, not rebuilt per turn
+
+    static {
+        for (int code = 0; code < PATTERNS; code++) {
+            DECODED[code] = build(code, WORD_LENGTH);
+        }
+    }
+
+    private final List<String> words;
+    private final Map<String, Integer> ids;
+    private final ByteBuffer data;
+    private final int size;
+
+    private FeedbackMatrix(List<String> words, ByteBuffer data) {
+        this.words = words;
+        this.size = words.size();
+        this.data = data;
+        this.ids = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            ids.put(words.get(i), i);
+        }
+    }
+
+    // Number of distinct feedback codes for a word length (3^length)
+    public static int patterns(int wordLength) {
+        int patterns = 1;
+        for (int i = 0; i < wordLength; i++) {
+            patterns *= 3;
+        }
+        return patterns;
+    }
+
+    // Pattern digits are X=0, Y=1, G=2 with position 0 as the least significant digit.
+    public static int encode(String guess, String solution) {
+        int length = guess.length();
+        int greens = 0;
+        for (int i = 0; i < length; i++) {
+            if (guess.charAt(i) == solution.charAt(i)) {
+                greens |= 1 << i;
+            }
+        }
+
+        int used = greens;
+        int code = 0;
+        int pow = 1;
+        for (int i = 0; i < length; i++, pow *= 3) {
+            if ((greens & (1 << i)) != 0) {
+                code += 2 * pow;
+                continue;
+            }
+            char g = guess.charAt(i);
+            for (int j = 0; j < length; j++) {
+                if ((used & (1 << j)) == 0 && solution.charAt(j) == g) {
+                    used |= 1 << j;
+                    code += pow;
+                    break;
+                }
+            }
+        }
+        return code;
+    }
+
+    public static int encode(String feedback) {
+        int code = 0;
+        int pow = 1;
+        for (int i = 0; i < feedback.length(); i++, pow *= 3) {
+            char fb = feedback.charAt(i);
+            if (fb == 'G') {
+                code += 2 * pow;
+            } else if (fb == 'Y') {
+                code += pow;
+            }
+        }
+        return code;
+    }
+
+    public static String decode(int code) {
+        return decode(code, WORD_LENGTH);
+    }
+
+    public static String decode(int code, int wordLength) {
+        return wordLength == WORD_LENGTH ? DECODED[code] : build(code, wordLength);
+    }
+
+    private static String build(int code, int wordLength) {
+        char[] feedback = new char[wordLength];
+        for (int i = 0; i < wordLength; i++) {
+            int digit = code % 3;
+            feedback[i] = digit == 2 ? 'G' : digit == 1 ? 'Y' : 'X';
+            code /= 3;
+        }
+        return new String(feedback);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<String> words() {
+        return words;
+    }
+
+    public int indexOf(String word) {
+        Integer id = ids.get(word);
+        return id == null ? -1 : id;
+    }
+
+    public int feedback(int guessId, int solutionId) {
+        return data.get(HEADER_BYTES + guessId * size + solutionId) & 0xFF;
+    }
+
+    public static FeedbackMatrix loadOrBuild(List<String> words, Path file) throws IOException {
+        List<String> copy = List.copyOf(words);
+        if (!copy.isEmpty() && copy.get(0).length() != WORD_LENGTH) {
+            throw new IllegalArgumentException("Feedback matrices support " + WORD_LENGTH + "-letter words only");
+        }
+        long expectedBytes = HEADER_BYTES + (long) copy.size() * copy.size();
+        if (expectedBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dictionary too large for a feedback matrix: " + copy.size());
+        }
+
+        if (Files.exists(file) && Files.size(file) == expectedBytes) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedBytes);
+                if (header.getInt(0) == MAGIC && header.getInt(4) == copy.size()
+                        && header.getLong(8) == fingerprint(copy)) {
+                    return new FeedbackMatrix(copy, header);
+                }
+            }
+        }
+
+        build(copy, file, (int) expectedBytes);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new FeedbackMatrix(copy, channel.map(FileChannel.MapMode.READ_ONLY, 0, expectedBytes));
+        }
+    }
+
+    private static void build(List<String> words, Path file, int totalBytes) throws IOException {
+        int n = words.size();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalBytes);
+
+            int[] packed = new int[n];
+            for (int i = 0; i < n; i++) {
+                packed[i] = PackedWords.pack(words.get(i));
+            }
+
+            FeedbackKernel kernel = FeedbackKernel.get();
+            ThreadLocal<int[]> rows = ThreadLocal.withInitial(() -> new int[n]);
+            IntStream.range(0, n).parallel().forEach(g -> {
+                int[] codes = rows.get();
+                kernel.feedback(packed[g], packed, n, codes);
+                int row = HEADER_BYTES + g * n;
+                for (int s = 0; s < n; s++) {
+                    out.put(row + s, (byte) codes[s]);
+                }
+            });
+
+            // Header goes last so a partially written file is never accepted.
+            out.putInt(0, MAGIC);
+            out.putInt(4, n);
+            out.putLong(8, fingerprint(words));
+            out.force();
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static long fingerprint(List<String> words) {
+        long hash = 1125899906842597L;
+        for (String word : words) {
+            hash = 31 * hash + word.hashCode();
+        }
+        return hash;
+    }
+}
@@ -4,6 +4,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Filter{
 
@@ -13,17 +16,21 @@ public class Filter{
         File file2 = new File("./words_alpha_size_5.txt");
         BufferedReader br = new BufferedReader(new FileReader(file));
         BufferedWriter  bw = new BufferedWriter(new FileWriter(file2));
+        List<String> words = new ArrayList<>(15000);
 
         String st;
         while ((st = br.readLine()) != null){
             if (st.length() == 5){
                 bw.write(st);
                 bw.newLine();
+                words.add(st);
             }      
         }
         bw.flush();
         bw.close();
         br.close();
-        
+
+        DictionaryIndex index = new DictionaryIndex(words);
+        PackedDictionary.write(Paths.get("./words_alpha_size_5.bin"), index);
     }
-}
\ No newline at end of file
+} 
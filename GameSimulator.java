@@ -0,0 +1,204 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// Plays the full strategy against every solution on a work-stealing pool; results stay in solution order
+public final class GameSimulator {
+    public static final int MAX_GUESSES = 30;
+
+    private static final int SPLIT_THRESHOLD = 32;
+
+    private final ForkJoinPool pool;
+
+    public GameSimulator(int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public Result run(List<String> solutions, Supplier<SolverGame> games) {
+        ThreadLocal<SolverGame> perThread = ThreadLocal.withInitial(games);
+        Result result = new Result(solutions);
+        long start = System.nanoTime();
+        pool.invoke(new PlayTask(result, perThread, 0, solutions.size()));
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    static void play(SolverGame game, String solution, Result result, int slot) {
+        play(game, solution, result, slot, null);
+    }
+
+    // turnLatency, when given, records each turn: choosing the guess plus applying its feedback
+    static void play(SolverGame game, String solution, Result result, int slot, LatencyHistogram turnLatency) {
+        game.reset();
+        StringBuilder path = new StringBuilder();
+        boolean solved = false;
+        while (game.guessCount() < MAX_GUESSES && !game.solver().getPossibleWords().isEmpty()) {
+            long start = turnLatency != null ? System.nanoTime() : 0;
+            String guess = game.nextGuess();
+            if (path.length() > 0) {
+                path.append(' ');
+            }
+            path.append(guess);
+
+            String feedback = FeedbackMatrix.decode(FeedbackMatrix.encode(guess, solution), solution.length());
+            boolean allGreen = game.applyFeedback(guess, feedback);
+            if (turnLatency != null) {
+                turnLatency.record(System.nanoTime() - start);
+            }
+            if (allGreen) {
+                solved = true;
+                break;
+            }
+        }
+        result.guesses[slot] = solved ? game.guessCount() : 0;
+        result.paths[slot] = path.toString();
+    }
+
+    // One game against the adversary; the answer reported is whatever word it is finally forced into
+    public static Result playAgainst(SolverGame game, AbsurdleAdversary adversary) {
+        game.reset();
+        adversary.reset();
+        StringBuilder path = new StringBuilder();
+        String answer = null;
+        while (game.guessCount() < MAX_GUESSES && !game.solver().getPossibleWords().isEmpty()) {
+            String guess = game.nextGuess();
+            if (path.length() > 0) {
+                path.append(' ');
+            }
+            path.append(guess);
+
+            String feedback = FeedbackMatrix.decode(adversary.respond(guess), guess.length());
+            if (game.applyFeedback(guess, feedback)) {
+                answer = guess;
+                break;
+            }
+        }
+
+        Result result = new Result(List.of(answer != null ? answer : String.join("|", adversary.remainingWords())));
+        result.guesses[0] = answer != null ? game.guessCount() : 0;
+        result.paths[0] = path.toString();
+        return result;
+    }
+
+    private static final class PlayTask extends RecursiveAction {
+        private final Result result;
+        private final ThreadLocal<SolverGame> games;
+        private final int from;
+        private final int to;
+
+        PlayTask(Result result, ThreadLocal<SolverGame> games, int from, int to) {
+            this.result = result;
+            this.games = games;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                SolverGame game = games.get();
+                for (int i = from; i < to; i++) {
+                    play(game, result.solutions.get(i), result, i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PlayTask(result, games, from, mid), new PlayTask(result, games, mid, to));
+        }
+    }
+
+    public static final class Result {
+        final List<String> solutions;
+        final int[] guesses; // 0 when the word was not solved
+        final String[] paths;
+        long elapsedNanos;
+
+        Result(List<String> solutions) {
+            this.solutions = solutions;
+            this.guesses = new int[solutions.size()];
+            this.paths = new String[solutions.size()];
+        }
+
+        public int size() {
+            return guesses.length;
+        }
+
+        public int solved() {
+            int solved = 0;
+            for (int g : guesses) {
+                if (g > 0) {
+                    solved++;
+                }
+            }
+            return solved;
+        }
+
+        public long totalGuesses() {
+            long total = 0;
+            for (int g : guesses) {
+                total += g;
+            }
+            return total;
+        }
+
+        public double averageGuesses() {
+            int solved = solved();
+            return solved > 0 ? (double) totalGuesses() / solved : 0;
+        }
+
+        // histogram[g] is the number of words solved in exactly g guesses
+        public int[] histogram() {
+            int[] histogram = new int[MAX_GUESSES + 1];
+            for (int g : guesses) {
+                if (g > 0) {
+                    histogram[g]++;
+                }
+            }
+            return histogram;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public void writeCsv(Writer out) throws IOException {
+            out.write("word,guesses,solved,path\n");
+            for (int i = 0; i < guesses.length; i++) {
+                out.write(solutions.get(i) + "," + guesses[i] + "," + (guesses[i] > 0) + "," + paths[i] + "\n");
+            }
+            out.flush();
+        }
+
+        public void writeJson(Writer out) throws IOException {
+            out.write("{\n");
+            out.write(String.format(Locale.ROOT, "  \"words\": %d,%n  \"solved\": %d,%n  \"averageGuesses\": %.4f,%n",
+                    size(), solved(), averageGuesses()));
+            out.write("  \"histogram\": {");
+            int[] histogram = histogram();
+            String separator = "";
+            for (int g = 1; g < histogram.length; g++) {
+                if (histogram[g] > 0) {
+                    out.write(separator + "\"" + g + "\": " + histogram[g]);
+                    separator = ", ";
+                }
+            }
+            out.write("},\n  \"results\": [\n");
+            for (int i = 0; i < guesses.length; i++) {
+                out.write("    {\"word\": \"" + solutions.get(i) + "\", \"guesses\": " + guesses[i]
+                        + ", \"solved\": " + (guesses[i] > 0) + ", \"path\": \"" + paths[i] + "\"}"
+                        + (i + 1 < guesses.length ? ",\n" : "\n"));
+            }
+            out.write("  ]\n}\n");
+            out.flush();
+        }
+    }
+}
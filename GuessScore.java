@@ -0,0 +1,73 @@
+import java.util.*;
+
+// How one guess would split a snapshot of the candidates: the feedback partition plus the usual summaries of it
+public final class GuessScore {
+    private final String guess;
+    private final int[] patterns; // Feedback codes that occur, ascending
+    private final int[] counts; // Candidates that give each of those codes
+    private final int candidates;
+    private final double entropy;
+    private final int worstCase;
+
+    GuessScore(String guess, int[] patterns, int[] counts, int candidates) {
+        this.guess = guess;
+        this.patterns = patterns;
+        this.counts = counts;
+        this.candidates = candidates;
+        this.entropy = candidates > 1 ? EntropyGuessPicker.entropy(counts, candidates) : 0.0;
+        int worst = 0;
+        for (int count : counts) {
+            worst = Math.max(worst, count);
+        }
+        this.worstCase = worst;
+    }
+
+    public String guess() {
+        return guess;
+    }
+
+    public int candidates() {
+        return candidates;
+    }
+
+    public int partitions() {
+        return patterns.length;
+    }
+
+    public int[] patterns() {
+        return patterns.clone();
+    }
+
+    public int[] counts() {
+        return counts.clone();
+    }
+
+    // Candidates left after feedback pattern, 0 if no candidate gives it
+    public int count(int pattern) {
+        int i = Arrays.binarySearch(patterns, pattern);
+        return i >= 0 ? counts[i] : 0;
+    }
+
+    // Expected bits of information
+    public double entropy() {
+        return entropy;
+    }
+
+    // Largest group the feedback can leave
+    public int worstCase() {
+        return worstCase;
+    }
+
+    public double expectedRemaining() {
+        long sum = 0;
+        for (int count : counts) {
+            sum += (long) count * count;
+        }
+        return candidates > 0 ? (double) sum / candidates : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s %.4f %d", guess, entropy, worstCase);
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.*;
+
+// Letter statistics over a candidate set: how many candidates have each letter at each position, and how many
+// contain each letter at all. Filtering only ever removes candidates, so update() follows it by subtracting the words
+// dropped since the last update, or by recounting the survivors when fewer words survive than drop out. A turn costs
+// time proportional to the smaller side, never the whole dictionary, and turns whose picks never read the counts
+// (fixed openers, tree lookups) cost nothing.
+public final class LetterCounts {
+    private final WordBitsets bitsets;
+    private final int wordLength;
+    private final int[] initialPositional;
+    private final int[] initialPresent;
+    private final int[] positional; // [position * 26 + letter]
+    private final int[] present; // Candidates containing the letter at least once
+    private final long[] counted; // The candidates the counts describe
+    private int size;
+    private boolean stale; // counted is no longer a superset of the candidates
+
+    public LetterCounts(WordBitsets bitsets) {
+        this.bitsets = bitsets;
+        this.wordLength = bitsets.wordLength();
+        this.initialPositional = new int[wordLength * 26];
+        this.initialPresent = new int[26];
+        for (int letter = 0; letter < 26; letter++) {
+            for (int i = 0; i < wordLength; i++) {
+                initialPositional[i * 26 + letter] = WordBitsets.cardinality(bitsets.letterAt(i, letter));
+            }
+            initialPresent[letter] = WordBitsets.cardinality(bitsets.letterAtLeast(letter, 1));
+        }
+        this.positional = initialPositional.clone();
+        this.present = initialPresent.clone();
+        this.counted = bitsets.all();
+        this.size = bitsets.size();
+    }
+
+    // Back to every word in the dictionary
+    public void reset() {
+        System.arraycopy(initialPositional, 0, positional, 0, positional.length);
+        System.arraycopy(initialPresent, 0, present, 0, present.length);
+        bitsets.fill(counted);
+        size = bitsets.size();
+        stale = false;
+    }
+
+    // Candidates grew (e.g. undo), so the next update counts them from scratch
+    public void invalidate() {
+        stale = true;
+    }
+
+    // Brings the counts in line with candidates, which must be a subset of the last update's unless invalidated
+    public void update(long[] candidates) {
+        int survivors = WordBitsets.cardinality(candidates);
+        if (!stale && survivors == size) {
+            return;
+        }
+        if (stale || survivors < size - survivors) {
+            Arrays.fill(positional, 0);
+            Arrays.fill(present, 0);
+            size = 0;
+            for (int slot = 0; slot < candidates.length; slot++) {
+                for (long b = candidates[slot]; b != 0; b &= b - 1) {
+                    add((slot << 6) + Long.numberOfTrailingZeros(b), 1);
+                }
+            }
+        } else {
+            for (int slot = 0; slot < candidates.length; slot++) {
+                for (long dropped = counted[slot] & ~candidates[slot]; dropped != 0; dropped &= dropped - 1) {
+                    add((slot << 6) + Long.numberOfTrailingZeros(dropped), -1);
+                }
+            }
+        }
+        System.arraycopy(candidates, 0, counted, 0, counted.length);
+        stale = false;
+    }
+
+    private void add(int id, int delta) {
+        int seen = 0;
+        for (int i = 0; i < wordLength; i++) {
+            int letter = bitsets.letter(id, i);
+            positional[i * 26 + letter] += delta;
+            if ((seen & 1 << letter) == 0) {
+                present[letter] += delta;
+                seen |= 1 << letter;
+            }
+        }
+        size += delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Candidates with letter at position
+    public int at(int position, int letter) {
+        return positional[position * 26 + letter];
+    }
+
+    // Candidates containing letter anywhere
+    public int present(int letter) {
+        return present[letter];
+    }
+}
@@ -0,0 +1,180 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Supplier;
+
+// End-to-end regression gate: plays a seeded sample of answers through the same SolverGame path as the simulator,
+// on the calling thread, and reports throughput, per-turn latency and allocation per game. A warm-up pass runs the
+// same sample first, and the decision cache is cleared before both passes so each one does the full work.
+public final class MacroBenchmark {
+    public static final long DEFAULT_SEED = 1L;
+    public static final int DEFAULT_GAMES = 5000;
+    public static final double DEFAULT_MARGIN_PERCENT = 30;
+    // The baseline stores the average to four decimals
+    private static final double GUESS_TOLERANCE = 0.0001;
+
+    private MacroBenchmark() {
+    }
+
+    public static Report run(List<String> answers, Supplier<SolverGame> games, int count, long seed) {
+        List<String> sample = sample(answers, count, seed);
+        SolverGame game = games.get();
+        GameSimulator.Result result = new GameSimulator.Result(sample);
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        long threadId = Thread.currentThread().getId();
+
+        DecisionCache.shared().clear();
+        for (int i = 0; i < sample.size(); i++) {
+            GameSimulator.play(game, sample.get(i), result, i);
+        }
+
+        DecisionCache.shared().clear();
+        LatencyHistogram turns = new LatencyHistogram();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < sample.size(); i++) {
+            GameSimulator.play(game, sample.get(i), result, i, turns);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Report(sample.size(), seed, sample.size() * 1e9 / nanos, turns.percentile(50),
+                turns.percentile(99), allocated / sample.size(), result.averageGuesses());
+    }
+
+    // Drawn with replacement, so the sample depends only on the answers, the count and the seed
+    static List<String> sample(List<String> answers, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> sample = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sample.add(answers.get(random.nextInt(answers.size())));
+        }
+        return sample;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new IllegalStateException("This JVM does not report per-thread allocation");
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("This JVM does not report per-thread allocation");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    public static final class Report {
+        final int games;
+        final long seed;
+        final double gamesPerSecond;
+        final long p50Nanos;
+        final long p99Nanos;
+        final long bytesPerGame;
+        final double averageGuesses;
+
+        Report(int games, long seed, double gamesPerSecond, long p50Nanos, long p99Nanos, long bytesPerGame,
+                double averageGuesses) {
+            this.games = games;
+            this.seed = seed;
+            this.gamesPerSecond = gamesPerSecond;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.bytesPerGame = bytesPerGame;
+            this.averageGuesses = averageGuesses;
+        }
+
+        public int games() {
+            return games;
+        }
+
+        public long seed() {
+            return seed;
+        }
+
+        // Metrics that do not depend on the machine: allocation beyond marginPercent, and any rise in the average
+        // guess count, which is deterministic for a given sample. One line per regression; empty when none are.
+        public List<String> regressions(Report baseline, double marginPercent) {
+            double margin = marginPercent / 100.0;
+            List<String> regressions = new ArrayList<>();
+            if (bytesPerGame > baseline.bytesPerGame * (1 + margin)) {
+                regressions.add(String.format(Locale.ROOT, "allocated %d bytes/game, baseline %d", bytesPerGame,
+                        baseline.bytesPerGame));
+            }
+            if (baseline.averageGuesses > 0 && averageGuesses > baseline.averageGuesses + GUESS_TOLERANCE) {
+                regressions.add(String.format(Locale.ROOT, "%.4f guesses/game, baseline %.4f", averageGuesses,
+                        baseline.averageGuesses));
+            }
+            return regressions;
+        }
+
+        // Wall-clock metrics worse than the baseline by more than marginPercent. These only mean something against
+        // a baseline written on the same machine.
+        public List<String> timingRegressions(Report baseline, double marginPercent) {
+            double margin = marginPercent / 100.0;
+            List<String> regressions = new ArrayList<>();
+            if (gamesPerSecond < baseline.gamesPerSecond * (1 - margin)) {
+                regressions.add(String.format(Locale.ROOT, "games/s %.0f, baseline %.0f", gamesPerSecond,
+                        baseline.gamesPerSecond));
+            }
+            if (p50Nanos > baseline.p50Nanos * (1 + margin)) {
+                regressions.add(String.format(Locale.ROOT, "p50 turn %dns, baseline %dns", p50Nanos,
+                        baseline.p50Nanos));
+            }
+            if (p99Nanos > baseline.p99Nanos * (1 + margin)) {
+                regressions.add(String.format(Locale.ROOT, "p99 turn %dns, baseline %dns", p99Nanos,
+                        baseline.p99Nanos));
+            }
+            return regressions;
+        }
+
+        public static Report load(Path file) throws IOException {
+            Properties properties = new Properties();
+            try (Reader in = Files.newBufferedReader(file)) {
+                properties.load(in);
+            }
+            try {
+                return new Report(Integer.parseInt(required(properties, "games")),
+                        Long.parseLong(required(properties, "seed")),
+                        Double.parseDouble(required(properties, "gamesPerSecond")),
+                        Long.parseLong(required(properties, "p50TurnNanos")),
+                        Long.parseLong(required(properties, "p99TurnNanos")),
+                        Long.parseLong(required(properties, "bytesPerGame")),
+                        Double.parseDouble(properties.getProperty("averageGuesses", "0")));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed benchmark baseline " + file + ": " + e.getMessage(), e);
+            }
+        }
+
+        private static String required(Properties properties, String key) throws IOException {
+            String value = properties.getProperty(key);
+            if (value == null) {
+                throw new IOException("Benchmark baseline has no " + key);
+            }
+            return value.trim();
+        }
+
+        public void store(Path file) throws IOException {
+            try (Writer out = Files.newBufferedWriter(file)) {
+                out.write("# WordleSolverTester --benchmark baseline; regenerate with --write-baseline\n");
+                out.write("# Timings are from the machine that wrote this file and are gated only with --gate-timing\n");
+                out.write("games=" + games + "\n");
+                out.write("seed=" + seed + "\n");
+                out.write(String.format(Locale.ROOT, "gamesPerSecond=%.1f%n", gamesPerSecond));
+                out.write("p50TurnNanos=" + p50Nanos + "\n");
+                out.write("p99TurnNanos=" + p99Nanos + "\n");
+                out.write("bytesPerGame=" + bytesPerGame + "\n");
+                out.write(String.format(Locale.ROOT, "averageGuesses=%.4f%n", averageGuesses));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d games (seed %d): %.0f games/s, turn p50 %.1fus p99 %.1fus, %d bytes/game, %.3f guesses",
+                    games, seed, gamesPerSecond, p50Nanos / 1e3, p99Nanos / 1e3, bytesPerGame, averageGuesses);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.IntStream;
+
+public final class MultiBoardSolver {
+    private static final String OPENER = "salet";
+
+    private final DictionaryIndex index;
+    private final WordleSolver[] boards;
+    private final boolean[] solved;
+    private FeedbackMatrix feedbackMatrix;
+    private int guessCount;
+
+    public MultiBoardSolver(DictionaryIndex index, int boardCount) {
+        if (index.wordLength() != FeedbackMatrix.WORD_LENGTH) {
+            throw new IllegalArgumentException("Multi-board games need a " + FeedbackMatrix.WORD_LENGTH
+                    + "-letter dictionary");
+        }
+        this.index = index;
+        this.boards = new WordleSolver[boardCount];
+        this.solved = new boolean[boardCount];
+        for (int b = 0; b < boardCount; b++) {
+            boards[b] = new WordleSolver(index);
+        }
+    }
+
+    public void useFeedbackMatrix(FeedbackMatrix matrix) {
+        for (WordleSolver board : boards) {
+            board.useFeedbackMatrix(matrix);
+        }
+        this.feedbackMatrix = matrix;
+    }
+
+    public void reset() {
+        for (WordleSolver board : boards) {
+            board.reset();
+        }
+        Arrays.fill(solved, false);
+        guessCount = 0;
+    }
+
+    public int boardCount() {
+        return boards.length;
+    }
+
+    public boolean isSolved(int board) {
+        return solved[board];
+    }
+
+    public boolean allSolved() {
+        for (boolean s : solved) {
+            if (!s) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<String> getPossibleWords(int board) {
+        return boards[board].getPossibleWords();
+    }
+
+    // feedbacks[b] is ignored for boards that are already solved
+    public void applyGuess(String guess, String[] feedbacks) {
+        guessCount++;
+        IntStream.range(0, boards.length).parallel().forEach(b -> {
+            if (solved[b]) {
+                return;
+            }
+            if ("GGGGG".equals(feedbacks[b])) {
+                solved[b] = true;
+            } else {
+                boards[b].updateConstraints(guess, feedbacks[b]);
+            }
+        });
+    }
+
+    public String pickGuess() {
+        List<Integer> open = new ArrayList<>();
+        for (int b = 0; b < boards.length; b++) {
+            if (!solved[b]) {
+                open.add(b);
+            }
+        }
+        if (open.isEmpty()) {
+            throw new IllegalStateException("All boards are solved");
+        }
+
+        for (int b : open) {
+            if (boards[b].getPossibleWords().isEmpty()) {
+                throw new IllegalStateException("Board " + (b + 1) + " has no possible words left");
+            }
+        }
+
+        // A board down to one word is a free solve
+        for (int b : open) {
+            if (boards[b].getPossibleWords().size() == 1) {
+                return boards[b].getPossibleWords().get(0);
+            }
+        }
+        if (guessCount == 0 && index.idOf(OPENER) >= 0) {
+            return OPENER;
+        }
+
+        // Boards often share candidates, so each guess's feedback is computed once over their union and
+        // every board then histograms its own slots of it
+        int poolSize = index.size();
+        int[] slotOf = new int[poolSize];
+        Arrays.fill(slotOf, -1);
+        int[] union = new int[poolSize];
+        int unionSize = 0;
+        int[][] slots = new int[open.size()][];
+        for (int i = 0; i < slots.length; i++) {
+            int[] ids = boards[open.get(i)].getCandidateIds();
+            slots[i] = new int[ids.length];
+            for (int k = 0; k < ids.length; k++) {
+                if (slotOf[ids[k]] < 0) {
+                    slotOf[ids[k]] = unionSize;
+                    union[unionSize++] = ids[k];
+                }
+                slots[i][k] = slotOf[ids[k]];
+            }
+            // Histogram order is irrelevant; sorted slots keep the reads of codes sequential
+            Arrays.sort(slots[i]);
+        }
+        double[] scores = scorePool(Arrays.copyOf(union, unionSize), slots);
+
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int g = 0; g < poolSize; g++) {
+            boolean isCandidate = slotOf[g] >= 0;
+            if (scores[g] > bestScore || (scores[g] == bestScore && isCandidate && slotOf[best] < 0)) {
+                bestScore = scores[g];
+                best = g;
+            }
+        }
+        return index.word(best);
+    }
+
+    // Sum of each board's entropy for every pool guess; slots[i] indexes board i's candidates into union
+    private double[] scorePool(int[] union, int[][] slots) {
+        double[] scores = new double[index.size()];
+        int[] packed = index.packedWords();
+        int[] solutions = new int[union.length];
+        for (int u = 0; u < union.length; u++) {
+            solutions[u] = packed[union[u]];
+        }
+
+        FeedbackKernel kernel = FeedbackKernel.get();
+        ThreadLocal<int[]> codeBuffers = ThreadLocal.withInitial(() -> new int[union.length]);
+        ThreadLocal<int[]> histograms = ThreadLocal.withInitial(() -> new int[FeedbackMatrix.PATTERNS]);
+        IntStream.range(0, scores.length).parallel().forEach(g -> {
+            int[] codes = codeBuffers.get();
+            int[] histogram = histograms.get();
+            if (feedbackMatrix != null) {
+                for (int u = 0; u < union.length; u++) {
+                    codes[u] = feedbackMatrix.feedback(g, union[u]);
+                }
+            } else {
+                kernel.feedback(packed[g], solutions, solutions.length, codes);
+            }
+            double score = 0.0;
+            for (int[] board : slots) {
+                Arrays.fill(histogram, 0);
+                for (int slot : board) {
+                    histogram[codes[slot]]++;
+                }
+                score += EntropyGuessPicker.entropy(histogram, board.length);
+            }
+            scores[g] = score;
+        });
+        return scores;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int boardCount = 4;
+        String matrixPath = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--matrix".equals(args[i])) {
+                matrixPath = args[++i];
+            } else {
+                boardCount = Integer.parseInt(args[i]);
+            }
+        }
+
+        String dictionaryPath = Files.exists(Paths.get("words_alpha_size_5.bin"))
+                ? "words_alpha_size_5.bin" : "words_alpha_size_5.txt";
+        DictionaryIndex index = DictionaryIndex.load(dictionaryPath);
+        MultiBoardSolver solver = new MultiBoardSolver(index, boardCount);
+        if (matrixPath != null) {
+            solver.useFeedbackMatrix(FeedbackMatrix.loadOrBuild(index.words(), Paths.get(matrixPath)));
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+
+        int guesses = 0;
+        while (!solver.allSolved()) {
+            String guess = solver.pickGuess();
+            guesses++;
+            System.out.println("Try: " + guess);
+
+            String[] feedbacks = new String[boardCount];
+            for (int b = 0; b < boardCount; b++) {
+                if (solver.isSolved(b)) {
+                    continue;
+                }
+                System.out.print("Board " + (b + 1) + " (" + solver.getPossibleWords(b).size()
+                        + " possible) feedback: ");
+                String line = reader.readLine();
+                if (line == null) {
+                    return;
+                }
+                feedbacks[b] = line.trim().toUpperCase(Locale.ROOT);
+                if (!feedbacks[b].matches("[GYX]{5}")) {
+                    System.out.println("invalid feedback, ensure exactly 5 of \"G\" \"Y\" \"X\"");
+                    b--;
+                }
+            }
+            solver.applyGuess(guess, feedbacks);
+
+            for (int b = 0; b < boardCount; b++) {
+                if (!solver.isSolved(b) && solver.getPossibleWords(b).isEmpty()) {
+                    System.out.println("Board " + (b + 1) + " has no possible words left.");
+                    return;
+                }
+            }
+        }
+        System.out.println("All " + boardCount + " boards solved in " + guesses + " guesses.");
+    }
+}
@@ -0,0 +1,88 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+public final class PackedDictionary {
+    public static final String EXTENSION = ".bin";
+
+    private static final int MAGIC = 0x57444943; // "WDIC"
+    private static final int VERSION = 2;
+    private static final int WORD_LENGTH = FeedbackMatrix.WORD_LENGTH;
+    private static final int HEADER_BYTES = 4 * 4 + 8 + 26 * 4;
+    private static final int BYTES_PER_WORD = Integer.BYTES + Double.BYTES + Integer.BYTES;
+
+    private PackedDictionary() {
+    }
+
+    // Layout: magic, version, word length, count, long fingerprint, int[26] letter frequency, int[count] words,
+    // double[count] scores, int[count] word position for each rank. That is everything the index derives from
+    // the word list, so loading only unpacks the strings and sets the bitsets.
+    public static void write(Path file, DictionaryIndex index) throws IOException {
+        if (index.wordLength() != WORD_LENGTH) {
+            throw new IllegalArgumentException("Packed dictionaries hold " + WORD_LENGTH + "-letter words only");
+        }
+        int n = index.size();
+        if (index.isWeighted()) {
+            throw new IllegalArgumentException("Packed dictionaries do not store answer weights");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + n * BYTES_PER_WORD);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(WORD_LENGTH).putInt(n).putLong(index.fingerprint());
+        for (int letter = 0; letter < 26; letter++) {
+            buffer.putInt(index.letterFrequency(letter));
+        }
+        for (int id = 0; id < n; id++) {
+            buffer.putInt(PackedWords.pack(index.word(id)));
+        }
+        for (int id = 0; id < n; id++) {
+            buffer.putDouble(index.score(id));
+        }
+        for (int rank = 0; rank < n; rank++) {
+            buffer.putInt(index.bitsets().dictionaryId(rank));
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public static DictionaryIndex read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a packed dictionary: " + file);
+            }
+            if (buffer.getInt(4) != VERSION || buffer.getInt(8) != WORD_LENGTH) {
+                throw new IOException("Unsupported packed dictionary version or word length (rerun Filter): " + file);
+            }
+            int n = buffer.getInt(12);
+            if (channel.size() != HEADER_BYTES + (long) n * BYTES_PER_WORD) {
+                throw new IOException("Truncated packed dictionary: " + file);
+            }
+            long fingerprint = buffer.getLong(16);
+
+            int[] letterFrequency = new int[26];
+            buffer.position(24);
+            buffer.asIntBuffer().get(letterFrequency);
+
+            int[] packed = new int[n];
+            buffer.position(HEADER_BYTES);
+            buffer.asIntBuffer().get(packed);
+
+            double[] scores = new double[n];
+            buffer.position(HEADER_BYTES + n * Integer.BYTES);
+            buffer.asDoubleBuffer().get(scores);
+
+            int[] rankOrder = new int[n];
+            buffer.position(HEADER_BYTES + n * (Integer.BYTES + Double.BYTES));
+            buffer.asIntBuffer().get(rankOrder);
+
+            return new DictionaryIndex(packed, letterFrequency, scores, rankOrder, fingerprint);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+public final class PackedWords {
+    public static final int BITS_PER_LETTER = 5;
+    public static final int LETTER_MASK = (1 << BITS_PER_LETTER) - 1;
+
+    private PackedWords() {
+    }
+
+    // Letter i ('a' = 0) sits in bits [5i, 5i + 5)
+    public static int pack(String word) {
+        int packed = 0;
+        for (int i = 0; i < word.length(); i++) {
+            packed |= (word.charAt(i) - 'a') << (BITS_PER_LETTER * i);
+        }
+        return packed;
+    }
+
+    public static int letterAt(int packed, int position) {
+        return (packed >>> (BITS_PER_LETTER * position)) & LETTER_MASK;
+    }
+
+    public static String unpack(int packed, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + letterAt(packed, i));
+        }
+        return new String(chars);
+    }
+}
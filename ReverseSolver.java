@@ -0,0 +1,274 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.IntStream;
+
+// Infers the answer behind a shared result grid, which shows the feedback rows but not the guesses. The index
+// counts, for every answer and feedback pattern, how many allowed guesses give that pattern against that answer.
+// An answer fits a grid when every row's count is nonzero, and is ranked by how likely a random guess would have
+// produced each row: weight(answer) * product of count / guesses. A grid is then a few lookups per answer, never a
+// pass over guess/answer pairs. Feedback comes from FeedbackKernel, which --verify-kernel checks against
+// simulateFeedback.
+public final class ReverseSolver {
+    private static final int BLOCK = 64; // Answers scored per kernel call while building
+
+    private final DictionaryIndex guesses;
+    private final DictionaryIndex answers;
+    private final int[] packedGuesses;
+    private final char[] counts; // [answer * PATTERNS + pattern], at most the guess count so it fits 16 bits
+
+    public ReverseSolver(DictionaryIndex guesses, DictionaryIndex answers) {
+        if (guesses.wordLength() != FeedbackMatrix.WORD_LENGTH || answers.wordLength() != guesses.wordLength()) {
+            throw new IllegalArgumentException("Reverse solving supports " + FeedbackMatrix.WORD_LENGTH
+                    + "-letter words only");
+        }
+        if (guesses.size() > Character.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many guesses for 16-bit counts: " + guesses.size());
+        }
+        this.guesses = guesses;
+        this.answers = answers;
+        this.packedGuesses = new int[guesses.size()];
+        for (int g = 0; g < packedGuesses.length; g++) {
+            packedGuesses[g] = guesses.packedWord(g);
+        }
+        this.counts = new char[answers.size() * FeedbackMatrix.PATTERNS];
+
+        // Each task owns a block of answers, so its counts stay in cache and no two tasks write the same slot
+        FeedbackKernel kernel = FeedbackKernel.get();
+        int blocks = (answers.size() + BLOCK - 1) / BLOCK;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int from = block * BLOCK;
+            int size = Math.min(BLOCK, answers.size() - from);
+            int[] packed = new int[size];
+            int[] codes = new int[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = answers.packedWord(from + i);
+            }
+            for (int guess : packedGuesses) {
+                kernel.feedback(guess, packed, size, codes);
+                for (int i = 0; i < size; i++) {
+                    counts[(from + i) * FeedbackMatrix.PATTERNS + codes[i]]++;
+                }
+            }
+        });
+    }
+
+    // Answers that fit every row, likeliest first. An all-green row is where the answer was found, which any answer
+    // fits, so it adds nothing; a grid without one (a lost game) is scored the same way.
+    public List<Match> solve(int[] rows) {
+        int[] clues = Arrays.stream(rows).filter(row -> row != FeedbackMatrix.ALL_GREEN).toArray();
+        double[] logScores = new double[answers.size()];
+        double logGuesses = Math.log(guesses.size());
+
+        IntStream.range(0, answers.size()).parallel().forEach(a -> {
+            double score = Math.log(answers.weight(a));
+            int base = a * FeedbackMatrix.PATTERNS;
+            for (int clue : clues) {
+                int count = counts[base + clue];
+                if (count == 0) {
+                    score = Double.NEGATIVE_INFINITY;
+                    break;
+                }
+                score += Math.log(count) - logGuesses;
+            }
+            logScores[a] = score;
+        });
+
+        double best = Double.NEGATIVE_INFINITY;
+        for (double score : logScores) {
+            best = Math.max(best, score);
+        }
+        List<Match> matches = new ArrayList<>();
+        double total = 0;
+        for (int a = 0; a < logScores.length; a++) {
+            if (logScores[a] != Double.NEGATIVE_INFINITY) {
+                double likelihood = Math.exp(logScores[a] - best); // Relative to the best, so it cannot underflow
+                matches.add(new Match(answers.word(a), likelihood, rowCounts(a, rows)));
+                total += likelihood;
+            }
+        }
+        for (Match match : matches) {
+            match.probability /= total;
+        }
+        matches.sort(Comparator.comparingDouble((Match m) -> -m.probability));
+        return matches;
+    }
+
+    private int[] rowCounts(int answer, int[] rows) {
+        int[] result = new int[rows.length];
+        for (int r = 0; r < rows.length; r++) {
+            result[r] = rows[r] == FeedbackMatrix.ALL_GREEN ? 1 : counts[answer * FeedbackMatrix.PATTERNS + rows[r]];
+        }
+        return result;
+    }
+
+    // Guesses that give pattern against answer, in dictionary order; for an all-green row that is the answer itself
+    public List<String> guessesFor(String answer, int pattern) {
+        int packedAnswer = PackedWords.pack(answer);
+        List<String> result = new ArrayList<>();
+        for (int g = 0; g < packedGuesses.length; g++) {
+            if (FeedbackKernel.feedback(packedGuesses[g], packedAnswer) == pattern) {
+                result.add(guesses.word(g));
+            }
+        }
+        return result;
+    }
+
+    // One plausible guess per row, each used once where the rows allow it; "?" where a row has no guess left
+    public String[] exampleGuesses(String answer, int[] rows) {
+        String[] example = new String[rows.length];
+        Set<String> used = new HashSet<>();
+        for (int r = 0; r < rows.length; r++) {
+            example[r] = "?";
+            for (String guess : guessesFor(answer, rows[r])) {
+                if (used.add(guess)) {
+                    example[r] = guess;
+                    break;
+                }
+            }
+        }
+        return example;
+    }
+
+    // Feedback rows of a pasted grid, top to bottom. Tiles are the emoji squares (green, yellow, black or white;
+    // orange and blue in high-contrast mode) or the letters G, Y and X. Lines that are not all tiles, like the
+    // "Wordle 1,234 4/6" header, are skipped; consecutive tile lines form one grid, which also ends at an all-green row.
+    public static List<int[]> parseGrids(BufferedReader in) throws IOException {
+        List<int[]> grids = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            String feedback = tiles(line.trim());
+            if (feedback != null) {
+                rows.add(FeedbackMatrix.encode(feedback));
+            }
+            if ((feedback == null || rows.get(rows.size() - 1) == FeedbackMatrix.ALL_GREEN) && !rows.isEmpty()) {
+                grids.add(rows.stream().mapToInt(Integer::intValue).toArray());
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            grids.add(rows.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return grids;
+    }
+
+    // The row as G/Y/X, or null if the line is not exactly one row of tiles
+    static String tiles(String line) {
+        StringBuilder feedback = new StringBuilder(FeedbackMatrix.WORD_LENGTH);
+        for (int i = 0; i < line.length(); ) {
+            int c = line.codePointAt(i);
+            i += Character.charCount(c);
+            if (c == 0xFE0F || Character.isWhitespace(c)) {
+                continue; // Variation selectors and spacing some apps add
+            }
+            char tile = tile(c);
+            if (tile == 0 || feedback.length() == FeedbackMatrix.WORD_LENGTH) {
+                return null;
+            }
+            feedback.append(tile);
+        }
+        return feedback.length() == FeedbackMatrix.WORD_LENGTH ? feedback.toString() : null;
+    }
+
+    private static char tile(int c) {
+        switch (c) {
+            case 0x1F7E9: // Green square
+            case 0x1F7E7: // Orange square, high contrast
+            case 'G':
+                return 'G';
+            case 0x1F7E8: // Yellow square
+            case 0x1F7E6: // Blue square, high contrast
+            case 'Y':
+                return 'Y';
+            case 0x2B1B: // Black square
+            case 0x2B1C: // White square
+            case 'X':
+                return 'X';
+            default:
+                return 0;
+        }
+    }
+
+    public static final class Match {
+        private final String word;
+        private double probability;
+        private final int[] rowGuesses;
+
+        Match(String word, double likelihood, int[] rowGuesses) {
+            this.word = word;
+            this.probability = likelihood;
+            this.rowGuesses = rowGuesses;
+        }
+
+        public String word() {
+            return word;
+        }
+
+        // Share of the total likelihood over every answer that fits the grid
+        public double probability() {
+            return probability;
+        }
+
+        // How many guesses could have produced each row
+        public int[] rowGuesses() {
+            return rowGuesses.clone();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %.4f", word, probability);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dictionaryPath = "words_alpha_size_5.txt";
+        String answersPath = null;
+        String gridPath = "-";
+        int top = 10;
+        for (int i = 0; i < args.length; i++) {
+            if ("--dictionary".equals(args[i])) {
+                dictionaryPath = args[++i];
+            } else if ("--answers".equals(args[i])) {
+                answersPath = args[++i];
+            } else if ("--top".equals(args[i])) {
+                top = Integer.parseInt(args[++i]);
+            } else {
+                gridPath = args[i];
+            }
+        }
+
+        DictionaryIndex index = DictionaryIndex.load(dictionaryPath);
+        DictionaryIndex answers = answersPath == null ? index
+                : DictionaryIndex.loadAnswers(answersPath, index.wordLength());
+        long start = System.nanoTime();
+        ReverseSolver solver = new ReverseSolver(index, answers);
+        System.out.printf("Indexed %d answers x %d guesses in %.2fs%n", answers.size(), index.size(),
+                (System.nanoTime() - start) / 1e9);
+
+        List<int[]> grids;
+        try (BufferedReader in = "-".equals(gridPath)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : new BufferedReader(new InputStreamReader(new FileInputStream(gridPath), StandardCharsets.UTF_8))) {
+            grids = parseGrids(in);
+        }
+
+        for (int[] grid : grids) {
+            start = System.nanoTime();
+            List<Match> matches = solver.solve(grid);
+            long nanos = System.nanoTime() - start;
+
+            System.out.println();
+            for (int row : grid) {
+                System.out.println(FeedbackMatrix.decode(row));
+            }
+            System.out.printf("%d possible answers (%.2fms)%n", matches.size(), nanos / 1e6);
+            for (Match match : matches.subList(0, Math.min(top, matches.size()))) {
+                String[] example = solver.exampleGuesses(match.word(), grid);
+                System.out.printf(Locale.ROOT, "  %s %5.1f%%  guesses per row %s  e.g. %s%n", match.word(),
+                        100 * match.probability(), Arrays.toString(match.rowGuesses()),
+                        String.join(" ", example));
+            }
+        }
+    }
+}
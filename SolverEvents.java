@@ -0,0 +1,104 @@
+import jdk.jfr.*;
+
+// JFR events for the solver hot path. Until Flight Recorder starts, the factories return null and no event
+// class is loaded at all (on JDK 17 the first event class load alone initializes JFR, taking hundreds of ms).
+final class SolverEvents {
+    private SolverEvents() {
+    }
+
+    static UpdateConstraints updateConstraints() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        UpdateConstraints event = new UpdateConstraints();
+        event.begin();
+        return event;
+    }
+
+    static FilterWords filterWords() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        FilterWords event = new FilterWords();
+        event.begin();
+        return event;
+    }
+
+    static PickDecisionGuess pickDecisionGuess() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        PickDecisionGuess event = new PickDecisionGuess();
+        event.begin();
+        return event;
+    }
+
+    static PickInformationGainWord pickInformationGainWord() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        PickInformationGainWord event = new PickInformationGainWord();
+        event.begin();
+        return event;
+    }
+
+    @Name("wordle.UpdateConstraints")
+    @Label("Update Constraints")
+    @Category("Wordle")
+    @StackTrace(false)
+    static final class UpdateConstraints extends Event {
+        @Label("Guess")
+        String guess;
+
+        @Label("Feedback")
+        String feedback;
+
+        @Label("Candidates Before")
+        int candidatesBefore;
+
+        @Label("Candidates After")
+        int candidatesAfter;
+    }
+
+    @Name("wordle.FilterWords")
+    @Label("Filter Words")
+    @Category("Wordle")
+    @StackTrace(false)
+    static final class FilterWords extends Event {
+        @Label("Candidates Before")
+        int candidatesBefore;
+
+        @Label("Candidates After")
+        int candidatesAfter;
+    }
+
+    @Name("wordle.PickDecisionGuess")
+    @Label("Pick Decision Guess")
+    @Category("Wordle")
+    @StackTrace(false)
+    static final class PickDecisionGuess extends Event {
+        @Label("Candidates")
+        int candidates;
+
+        @Label("Guess Pool Size")
+        int guessPoolSize;
+
+        @Label("Used Feedback Matrix")
+        boolean matrix;
+    }
+
+    @Name("wordle.PickInformationGainWord")
+    @Label("Pick Information Gain Word")
+    @Category("Wordle")
+    @StackTrace(false)
+    static final class PickInformationGainWord extends Event {
+        @Label("Candidates")
+        int candidates;
+
+        @Label("Guess Pool Size")
+        int guessPoolSize;
+
+        @Label("Tested Letters")
+        int testedLetters;
+    }
+}
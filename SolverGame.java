@@ -0,0 +1,124 @@
+import java.util.*;
+
+// One game's turn state on top of a solver; main and the simulator both drive games through this
+public final class SolverGame {
+    private final WordleSolver solver;
+    private final DecisionTree tree;
+    private final String allGreen;
+    private final Set<Character> testedLetters = new HashSet<>(26);
+    private int guessCount;
+    private int treeNode = DecisionTree.ROOT;
+    private String[] played = new String[8]; // Guesses whose feedback can still be undone
+    private int[] treeNodes = new int[8]; // Tree cursor before each of them
+    private int undoable;
+    private boolean leftTree; // Dropped on purpose, so undo must not go back onto it
+    private String suggestion; // Last live pick, until a guess is played
+    private int suggestionLetters; // Letters that pick marked as tested, as a bitmask
+
+    public SolverGame(WordleSolver solver, DecisionTree tree) {
+        this.solver = solver;
+        this.tree = tree;
+        this.allGreen = "G".repeat(solver.getWordLength());
+    }
+
+    public WordleSolver solver() {
+        return solver;
+    }
+
+    public int guessCount() {
+        return guessCount;
+    }
+
+    public String nextGuess() {
+        List<String> possible = solver.getPossibleWords();
+        if (possible.size() == 1) {
+            return possible.get(0);
+        }
+        if (tree != null && treeNode != DecisionTree.NONE) {
+            String guess = tree.guess(treeNode);
+            if (solver.isAllowedGuess(guess)) {
+                return guess;
+            }
+            leaveTree(); // The tree was built without hard mode
+        }
+        int before = testedMask();
+        suggestion = solver.chooseGuess(guessCount, testedLetters);
+        suggestionLetters = testedMask() & ~before;
+        return suggestion;
+    }
+
+    private int testedMask() {
+        int mask = 0;
+        for (char c : testedLetters) {
+            mask |= 1 << (c - 'a');
+        }
+        return mask;
+    }
+
+    // Counts the guess and narrows the candidates; returns true when the feedback is all green
+    public boolean applyFeedback(String guess, String feedback) {
+        suggestion = null;
+        guessCount++;
+        if (allGreen.equals(feedback)) {
+            return true;
+        }
+        if (undoable == played.length) {
+            played = Arrays.copyOf(played, undoable * 2);
+            treeNodes = Arrays.copyOf(treeNodes, undoable * 2);
+        }
+        played[undoable] = guess;
+        treeNodes[undoable++] = treeNode;
+        solver.updateConstraints(guess, feedback);
+        if (tree != null && treeNode != DecisionTree.NONE) {
+            treeNode = tree.child(treeNode, FeedbackMatrix.encode(feedback));
+        }
+        return false;
+    }
+
+    // Applies a guess chosen elsewhere (e.g. a recorded game): its letters count as tested, and a guess that differs
+    // from the tree's leaves the tree. A suggestion that was passed over no longer counts as tested.
+    public boolean replay(String guess, String feedback) {
+        if (suggestion != null && !suggestion.equals(guess)) {
+            for (int letters = suggestionLetters; letters != 0; letters &= letters - 1) {
+                testedLetters.remove((char) ('a' + Integer.numberOfTrailingZeros(letters)));
+            }
+        }
+        for (int i = 0; i < guess.length(); i++) {
+            testedLetters.add(guess.charAt(i));
+        }
+        if (tree != null && treeNode != DecisionTree.NONE && !tree.guess(treeNode).equals(guess)) {
+            leaveTree();
+        }
+        return applyFeedback(guess, feedback);
+    }
+
+    // Takes back the last feedback (e.g. a typo) and returns the guess it was for, or null if there is none
+    public String undo() {
+        if (undoable == 0) {
+            return null;
+        }
+        undoable--;
+        solver.undo();
+        guessCount--;
+        if (!leftTree) {
+            treeNode = treeNodes[undoable];
+        }
+        return played[undoable];
+    }
+
+    // The game left the precomputed path (e.g. a rejected word), so guesses fall back to live selection
+    public void leaveTree() {
+        treeNode = DecisionTree.NONE;
+        leftTree = true;
+    }
+
+    public void reset() {
+        guessCount = 0;
+        undoable = 0;
+        testedLetters.clear();
+        treeNode = DecisionTree.ROOT;
+        leftTree = false;
+        suggestion = null;
+        solver.reset();
+    }
+}
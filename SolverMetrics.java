@@ -0,0 +1,188 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.*;
+
+// Process-wide counters shared by every solver; exported over JMX as wordle:type=SolverMetrics.
+// filterWords runs inside updateConstraints, so it is only broken out in the JFR events.
+public final class SolverMetrics implements SolverMetricsMXBean {
+    public static final String OBJECT_NAME = "wordle:type=SolverMetrics";
+
+    private static final SolverMetrics INSTANCE = new SolverMetrics();
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LatencyHistogram updateConstraints = new LatencyHistogram();
+    private final LatencyHistogram chooseGuess = new LatencyHistogram();
+    private final LongAdder decisionGuesses = new LongAdder();
+    private final LongAdder informationGainGuesses = new LongAdder();
+    private final LongAdder entropyGuesses = new LongAdder();
+    private final LongAdder exactGuesses = new LongAdder();
+    private final LongAdder anytimeGuesses = new LongAdder();
+    private final LongAdder anytimeDeadlineHits = new LongAdder();
+
+    private SolverMetrics() {
+    }
+
+    public static SolverMetrics get() {
+        return INSTANCE;
+    }
+
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    void updateConstraints(long nanos) {
+        updateConstraints.record(nanos);
+    }
+
+    void chooseGuess(long nanos) {
+        chooseGuess.record(nanos);
+    }
+
+    void decisionGuess() {
+        decisionGuesses.increment();
+    }
+
+    void informationGainGuess() {
+        informationGainGuesses.increment();
+    }
+
+    void entropyGuess() {
+        entropyGuesses.increment();
+    }
+
+    void exactGuess() {
+        exactGuesses.increment();
+    }
+
+    void anytimeGuess(boolean deadlineHit) {
+        anytimeGuesses.increment();
+        if (deadlineHit) {
+            anytimeDeadlineHits.increment();
+        }
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    @Override
+    public long getUpdateConstraintsCount() {
+        return updateConstraints.count();
+    }
+
+    @Override
+    public double getUpdateConstraintsMeanMicros() {
+        return updateConstraints.mean() / 1e3;
+    }
+
+    @Override
+    public double getUpdateConstraintsP99Micros() {
+        return updateConstraints.percentile(99) / 1e3;
+    }
+
+    @Override
+    public double getUpdateConstraintsMaxMicros() {
+        return updateConstraints.max() / 1e3;
+    }
+
+    @Override
+    public long getChooseGuessCount() {
+        return chooseGuess.count();
+    }
+
+    @Override
+    public double getChooseGuessMeanMicros() {
+        return chooseGuess.mean() / 1e3;
+    }
+
+    @Override
+    public double getChooseGuessP50Micros() {
+        return chooseGuess.percentile(50) / 1e3;
+    }
+
+    @Override
+    public double getChooseGuessP99Micros() {
+        return chooseGuess.percentile(99) / 1e3;
+    }
+
+    @Override
+    public double getChooseGuessMaxMicros() {
+        return chooseGuess.max() / 1e3;
+    }
+
+    @Override
+    public long getDecisionGuesses() {
+        return decisionGuesses.sum();
+    }
+
+    @Override
+    public long getInformationGainGuesses() {
+        return informationGainGuesses.sum();
+    }
+
+    @Override
+    public long getEntropyGuesses() {
+        return entropyGuesses.sum();
+    }
+
+    @Override
+    public long getExactGuesses() {
+        return exactGuesses.sum();
+    }
+
+    @Override
+    public long getAnytimeGuesses() {
+        return anytimeGuesses.sum();
+    }
+
+    @Override
+    public long getAnytimeDeadlineHits() {
+        return anytimeDeadlineHits.sum();
+    }
+
+    @Override
+    public long getDecisionCacheHits() {
+        return DecisionCache.shared().hits();
+    }
+
+    @Override
+    public long getDecisionCacheMisses() {
+        return DecisionCache.shared().misses();
+    }
+
+    @Override
+    public long getDecisionCacheEvictions() {
+        return DecisionCache.shared().evictions();
+    }
+
+    @Override
+    public int getDecisionCacheSize() {
+        return DecisionCache.shared().size();
+    }
+
+    @Override
+    public void resetStatistics() {
+        gamesStarted.reset();
+        updateConstraints.reset();
+        chooseGuess.reset();
+        decisionGuesses.reset();
+        informationGainGuesses.reset();
+        entropyGuesses.reset();
+        exactGuesses.reset();
+        anytimeGuesses.reset();
+        anytimeDeadlineHits.reset();
+    }
+}
@@ -0,0 +1,43 @@
+public interface SolverMetricsMXBean {
+    long getGamesStarted();
+
+    long getUpdateConstraintsCount();
+
+    double getUpdateConstraintsMeanMicros();
+
+    double getUpdateConstraintsP99Micros();
+
+    double getUpdateConstraintsMaxMicros();
+
+    long getChooseGuessCount();
+
+    double getChooseGuessMeanMicros();
+
+    double getChooseGuessP50Micros();
+
+    double getChooseGuessP99Micros();
+
+    double getChooseGuessMaxMicros();
+
+    long getDecisionGuesses();
+
+    long getInformationGainGuesses();
+
+    long getEntropyGuesses();
+
+    long getExactGuesses();
+
+    long getAnytimeGuesses();
+
+    long getAnytimeDeadlineHits();
+
+    long getDecisionCacheHits();
+
+    long getDecisionCacheMisses();
+
+    long getDecisionCacheEvictions();
+
+    int getDecisionCacheSize();
+
+    void resetStatistics();
+}
@@ -0,0 +1,310 @@
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+public final class SolverServer {
+    private final DictionaryIndex index;
+    private final DictionaryIndex answers;
+    private final FeedbackMatrix matrix;
+    private final EntropyGuessPicker entropyPicker;
+    private final long idleTimeoutNanos;
+    private volatile AnytimeGuessPicker anytimePicker;
+
+    private final ConcurrentMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong(1);
+    private final LongAdder sessionsCreated = new LongAdder();
+    private final LongAdder sessionsEvicted = new LongAdder();
+    private final LatencyHistogram requestLatency = new LatencyHistogram();
+    private final long startNanos = System.nanoTime();
+
+    public SolverServer(DictionaryIndex index, FeedbackMatrix matrix, EntropyGuessPicker entropyPicker,
+            long idleTimeoutSeconds) {
+        this(index, index, matrix, entropyPicker, idleTimeoutSeconds);
+    }
+
+    public SolverServer(DictionaryIndex index, DictionaryIndex answers, FeedbackMatrix matrix,
+            EntropyGuessPicker entropyPicker, long idleTimeoutSeconds) {
+        this.index = index;
+        this.answers = answers;
+        this.matrix = matrix;
+        this.entropyPicker = entropyPicker;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+    }
+
+    // Games started from now on pick every guess after the opener within the picker's deadline
+    public void useAnytimePicker(AnytimeGuessPicker picker) {
+        this.anytimePicker = picker;
+    }
+
+    // Turn state lives in a SolverGame, so a session gives the same advice as main and BatchSolver
+    private static final class Session {
+        final SolverGame game;
+        final WordleSolver solver;
+        String pendingGuess;
+        volatile long lastAccess = System.nanoTime();
+
+        Session(WordleSolver solver) {
+            this.game = new SolverGame(solver, null);
+            this.solver = solver;
+        }
+    }
+
+    public void serve(int port) throws IOException {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long sweepMillis = Math.max(1000, TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) / 4);
+        evictor.scheduleWithFixedDelay(this::evictIdleSessions, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+
+        ExecutorService connections = connectionExecutor();
+        try (ServerSocket server = new ServerSocket(port, 512, InetAddress.getLoopbackAddress())) {
+            System.out.println("Wordle solver server listening on " + server.getLocalSocketAddress());
+            while (!server.isClosed()) {
+                Socket socket = server.accept();
+                connections.execute(() -> handleConnection(socket));
+            }
+        } finally {
+            connections.shutdownNow();
+            evictor.shutdownNow();
+        }
+    }
+
+    // Virtual threads when the runtime has them (Java 21+), a cached platform pool otherwise
+    private static ExecutorService connectionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "solver-connection");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if ("QUIT".equalsIgnoreCase(trimmed)) {
+                    break;
+                }
+
+                long start = System.nanoTime();
+                String response = handle(trimmed);
+                requestLatency.record(System.nanoTime() - start);
+
+                out.write(response);
+                out.newLine();
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away; its sessions stay until they idle out
+        }
+    }
+
+    String handle(String line) {
+        String[] parts = line.split("\\s+");
+        String command = parts[0].toUpperCase(Locale.ROOT);
+        try {
+            switch (command) {
+                case "NEW":
+                    return newGame();
+                case "GUESS":
+                    return nextGuess(session(parts, 1));
+                case "SCORE":
+                    if (parts.length < 3) {
+                        return "ERR usage: SCORE <session> <word>...";
+                    }
+                    return score(session(parts, 1), parts);
+                case "FEEDBACK":
+                    if (parts.length < 3) {
+                        return "ERR usage: FEEDBACK <session> <pattern> [guess]";
+                    }
+                    return feedback(session(parts, 1), parts[2].toUpperCase(Locale.ROOT),
+                            parts.length > 3 ? parts[3].toLowerCase(Locale.ROOT) : null);
+                case "END":
+                    return sessions.remove(sessionId(parts, 1)) != null ? "OK" : "ERR unknown session";
+                case "STATS":
+                    return stats();
+                default:
+                    return "ERR unknown command " + parts[0];
+            }
+        } catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private String newGame() {
+        WordleSolver solver = new WordleSolver(index, answers);
+        solver.useFeedbackMatrix(matrix);
+        solver.useEntropyPicker(entropyPicker);
+        solver.useAnytimePicker(anytimePicker);
+        solver.reset();
+
+        long id = nextSessionId.getAndIncrement();
+        Session session = new Session(solver);
+        sessions.put(id, session);
+        sessionsCreated.increment();
+        synchronized (session) {
+            return "OK " + id + " " + suggestion(session);
+        }
+    }
+
+    private String nextGuess(Session session) {
+        synchronized (session) {
+            if (session.solver.getPossibleWords().isEmpty()) {
+                return "ERR no possible words remain";
+            }
+            return "OK " + suggestion(session);
+        }
+    }
+
+    // Caller holds the session lock; repeated GUESS requests return the same pending word
+    private String suggestion(Session session) {
+        WordleSolver solver = session.solver;
+        if (session.pendingGuess == null) {
+            session.pendingGuess = session.game.nextGuess();
+        }
+        return session.pendingGuess + " " + solver.getPossibleWords().size();
+    }
+
+    // Read-only, so it does not take the session lock and never waits behind a FEEDBACK on the same game
+    private String score(Session session, String[] parts) {
+        List<String> words = new ArrayList<>(parts.length - 2);
+        for (int i = 2; i < parts.length; i++) {
+            words.add(parts[i].toLowerCase(Locale.ROOT));
+        }
+        StringBuilder response = new StringBuilder("OK");
+        for (GuessScore score : session.solver.scoreGuesses(words)) {
+            response.append(' ').append(score);
+        }
+        return response.toString();
+    }
+
+    // A guess the client names is replayed, so its letters count as tested just as in a recorded game
+    private String feedback(Session session, String pattern, String guess) {
+        int wordLength = session.solver.getWordLength();
+        if (pattern.length() != wordLength || !pattern.matches("[GYX]+")) {
+            return "ERR feedback must be " + wordLength + " of G, Y, X";
+        }
+        synchronized (session) {
+            String played = guess != null ? guess : session.pendingGuess;
+            if (played == null || played.length() != wordLength || !played.matches("[a-z]+")) {
+                return "ERR no valid guess to apply feedback to";
+            }
+            session.pendingGuess = null;
+            boolean solved = guess != null ? session.game.replay(played, pattern)
+                    : session.game.applyFeedback(played, pattern);
+            if (solved) {
+                return "SOLVED " + played + " " + session.game.guessCount();
+            }
+
+            int remaining = session.solver.getPossibleWords().size();
+            return remaining == 0 ? "FAILED no possible words remain" : "OK " + remaining;
+        }
+    }
+
+    private Session session(String[] parts, int position) {
+        Session session = sessions.get(sessionId(parts, position));
+        if (session == null) {
+            throw new IllegalArgumentException("unknown session");
+        }
+        session.lastAccess = System.nanoTime();
+        return session;
+    }
+
+    private static long sessionId(String[] parts, int position) {
+        if (parts.length <= position) {
+            throw new IllegalArgumentException("missing session id");
+        }
+        try {
+            return Long.parseLong(parts[position]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad session id " + parts[position]);
+        }
+    }
+
+    void evictIdleSessions() {
+        long cutoff = System.nanoTime() - idleTimeoutNanos;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext();) {
+            if (it.next().lastAccess - cutoff < 0) {
+                it.remove();
+                sessionsEvicted.increment();
+            }
+        }
+    }
+
+    private String stats() {
+        double uptimeSeconds = (System.nanoTime() - startNanos) / 1e9;
+        return String.format(Locale.ROOT,
+                "OK sessions=%d created=%d evicted=%d sessionsPerSecond=%.1f requests=%d "
+                        + "p50us=%.1f p90us=%.1f p99us=%.1f p999us=%.1f maxus=%.1f cacheHits=%d cacheMisses=%d",
+                sessions.size(), sessionsCreated.sum(), sessionsEvicted.sum(),
+                sessionsCreated.sum() / Math.max(uptimeSeconds, 1e-9), requestLatency.count(),
+                requestLatency.percentile(50) / 1e3, requestLatency.percentile(90) / 1e3,
+                requestLatency.percentile(99) / 1e3, requestLatency.percentile(99.9) / 1e3,
+                requestLatency.max() / 1e3, DecisionCache.shared().hits(), DecisionCache.shared().misses());
+    }
+
+    public static void main(String[] args) throws IOException {
+        String dictionaryPath = "words_alpha_size_5.txt";
+        int port = 7777;
+        long idleSeconds = 300;
+        String matrixPath = null;
+        String answersPath = null;
+        int entropyParallelism = 0;
+        long deadlineNanos = 0;
+        for (int i = 0; i < args.length; i++) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[++i]);
+            } else if ("--idle-seconds".equals(args[i])) {
+                idleSeconds = Long.parseLong(args[++i]);
+            } else if ("--matrix".equals(args[i])) {
+                matrixPath = args[++i];
+            } else if ("--entropy".equals(args[i])) {
+                entropyParallelism = i + 1 < args.length && args[i + 1].matches("\\d+")
+                        ? Integer.parseInt(args[++i]) : Runtime.getRuntime().availableProcessors();
+            } else if ("--dictionary".equals(args[i])) {
+                dictionaryPath = args[++i];
+            } else if ("--answers".equals(args[i])) {
+                answersPath = args[++i];
+            } else if ("--deadline-ms".equals(args[i])) {
+                deadlineNanos = AnytimeGuessPicker.parseMillis(args[++i]);
+            }
+        }
+
+        SolverMetrics.registerMBean();
+        DictionaryIndex index = DictionaryIndex.load(dictionaryPath);
+        if (index.size() == 0) {
+            // The word list loaders keep 5-letter words only, so any other length comes back empty
+            throw new IllegalArgumentException("No " + index.wordLength() + "-letter words in " + dictionaryPath);
+        }
+        FeedbackMatrix matrix = matrixPath == null ? null
+                : FeedbackMatrix.loadOrBuild(index.words(), Paths.get(matrixPath));
+        EntropyGuessPicker entropyPicker = entropyParallelism > 0 ? new EntropyGuessPicker(entropyParallelism) : null;
+        DictionaryIndex answers = answersPath == null ? index
+                : DictionaryIndex.loadAnswers(answersPath, index.wordLength());
+        SolverServer server = new SolverServer(index, answers, matrix, entropyPicker, idleSeconds);
+        if (deadlineNanos > 0) {
+            server.useAnytimePicker(new AnytimeGuessPicker(deadlineNanos));
+        }
+        server.serve(port);
+    }
+}
@@ -0,0 +1,150 @@
+import jdk.incubator.vector.*;
+
+final class VectorFeedbackKernel extends FeedbackKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length() + "x32";
+    }
+
+    // The loop body is written out by hand: the vectors only stay in registers if nothing is left un-inlined
+    @Override
+    public void feedback(int guess, int[] solutions, int count, int[] codes) {
+        int g0 = PackedWords.letterAt(guess, 0);
+        int g1 = PackedWords.letterAt(guess, 1);
+        int g2 = PackedWords.letterAt(guess, 2);
+        int g3 = PackedWords.letterAt(guess, 3);
+        int g4 = PackedWords.letterAt(guess, 4);
+
+        // At most two letters can repeat in a 5-letter guess; those need counts, the rest a single bit test
+        int dupA = -1;
+        int dupB = -1;
+        int seen = 0;
+        int[] letters = {g0, g1, g2, g3, g4};
+        for (int letter : letters) {
+            if ((seen & (1 << letter)) != 0 && letter != dupA && letter != dupB) {
+                if (dupA < 0) {
+                    dupA = letter;
+                } else {
+                    dupB = letter;
+                }
+            }
+            seen |= 1 << letter;
+        }
+
+        IntVector zero = IntVector.zero(SPECIES);
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+        int bound = SPECIES.loopBound(count);
+        int offset = 0;
+        for (; offset < bound; offset += SPECIES.length()) {
+            IntVector block = IntVector.fromArray(SPECIES, solutions, offset);
+            IntVector l0 = block.and(PackedWords.LETTER_MASK);
+            IntVector l1 = block.lanewise(VectorOperators.LSHR, 5).and(PackedWords.LETTER_MASK);
+            IntVector l2 = block.lanewise(VectorOperators.LSHR, 10).and(PackedWords.LETTER_MASK);
+            IntVector l3 = block.lanewise(VectorOperators.LSHR, 15).and(PackedWords.LETTER_MASK);
+            IntVector l4 = block.lanewise(VectorOperators.LSHR, 20).and(PackedWords.LETTER_MASK);
+
+            // Open positions are the ones not matched green; a position is open on both sides or neither
+            VectorMask<Integer> o0 = l0.compare(VectorOperators.NE, g0);
+            VectorMask<Integer> o1 = l1.compare(VectorOperators.NE, g1);
+            VectorMask<Integer> o2 = l2.compare(VectorOperators.NE, g2);
+            VectorMask<Integer> o3 = l3.compare(VectorOperators.NE, g3);
+            VectorMask<Integer> o4 = l4.compare(VectorOperators.NE, g4);
+
+            // One bit per letter still available in the solution's open positions
+            IntVector open = zero
+                    .lanewise(VectorOperators.OR, one.lanewise(VectorOperators.LSHL, l0), o0)
+                    .lanewise(VectorOperators.OR, one.lanewise(VectorOperators.LSHL, l1), o1)
+                    .lanewise(VectorOperators.OR, one.lanewise(VectorOperators.LSHL, l2), o2)
+                    .lanewise(VectorOperators.OR, one.lanewise(VectorOperators.LSHL, l3), o3)
+                    .lanewise(VectorOperators.OR, one.lanewise(VectorOperators.LSHL, l4), o4);
+
+            IntVector code = IntVector.broadcast(SPECIES, 242)
+                    .sub(2, o0).sub(6, o1).sub(18, o2).sub(54, o3).sub(162, o4);
+
+            if (dupA < 0) {
+                code = code.add(1, o0.and(open.and(1 << g0).compare(VectorOperators.NE, 0)))
+                        .add(3, o1.and(open.and(1 << g1).compare(VectorOperators.NE, 0)))
+                        .add(9, o2.and(open.and(1 << g2).compare(VectorOperators.NE, 0)))
+                        .add(27, o3.and(open.and(1 << g3).compare(VectorOperators.NE, 0)))
+                        .add(81, o4.and(open.and(1 << g4).compare(VectorOperators.NE, 0)));
+            } else {
+                // For a repeated letter, a position is yellow while the open solution positions holding it
+                // outnumber the earlier open guess positions that already claimed one each
+                IntVector availableA = zero.add(1, o0.and(l0.compare(VectorOperators.EQ, dupA)))
+                        .add(1, o1.and(l1.compare(VectorOperators.EQ, dupA)))
+                        .add(1, o2.and(l2.compare(VectorOperators.EQ, dupA)))
+                        .add(1, o3.and(l3.compare(VectorOperators.EQ, dupA)))
+                        .add(1, o4.and(l4.compare(VectorOperators.EQ, dupA)));
+                IntVector availableB = dupB < 0 ? zero : zero.add(1, o0.and(l0.compare(VectorOperators.EQ, dupB)))
+                        .add(1, o1.and(l1.compare(VectorOperators.EQ, dupB)))
+                        .add(1, o2.and(l2.compare(VectorOperators.EQ, dupB)))
+                        .add(1, o3.and(l3.compare(VectorOperators.EQ, dupB)))
+                        .add(1, o4.and(l4.compare(VectorOperators.EQ, dupB)));
+                IntVector claimedA = zero;
+                IntVector claimedB = zero;
+                VectorMask<Integer> yellow;
+
+                if (g0 == dupA) {
+                    yellow = availableA.compare(VectorOperators.GT, claimedA);
+                    claimedA = claimedA.add(1, o0);
+                } else if (g0 == dupB) {
+                    yellow = availableB.compare(VectorOperators.GT, claimedB);
+                    claimedB = claimedB.add(1, o0);
+                } else {
+                    yellow = open.and(1 << g0).compare(VectorOperators.NE, 0);
+                }
+                code = code.add(1, o0.and(yellow));
+
+                if (g1 == dupA) {
+                    yellow = availableA.compare(VectorOperators.GT, claimedA);
+                    claimedA = claimedA.add(1, o1);
+                } else if (g1 == dupB) {
+                    yellow = availableB.compare(VectorOperators.GT, claimedB);
+                    claimedB = claimedB.add(1, o1);
+                } else {
+                    yellow = open.and(1 << g1).compare(VectorOperators.NE, 0);
+                }
+                code = code.add(3, o1.and(yellow));
+
+                if (g2 == dupA) {
+                    yellow = availableA.compare(VectorOperators.GT, claimedA);
+                    claimedA = claimedA.add(1, o2);
+                } else if (g2 == dupB) {
+                    yellow = availableB.compare(VectorOperators.GT, claimedB);
+                    claimedB = claimedB.add(1, o2);
+                } else {
+                    yellow = open.and(1 << g2).compare(VectorOperators.NE, 0);
+                }
+                code = code.add(9, o2.and(yellow));
+
+                if (g3 == dupA) {
+                    yellow = availableA.compare(VectorOperators.GT, claimedA);
+                    claimedA = claimedA.add(1, o3);
+                } else if (g3 == dupB) {
+                    yellow = availableB.compare(VectorOperators.GT, claimedB);
+                    claimedB = claimedB.add(1, o3);
+                } else {
+                    yellow = open.and(1 << g3).compare(VectorOperators.NE, 0);
+                }
+                code = code.add(27, o3.and(yellow));
+
+                if (g4 == dupA) {
+                    yellow = availableA.compare(VectorOperators.GT, claimedA);
+                } else if (g4 == dupB) {
+                    yellow = availableB.compare(VectorOperators.GT, claimedB);
+                } else {
+                    yellow = open.and(1 << g4).compare(VectorOperators.NE, 0);
+                }
+                code = code.add(81, o4.and(yellow));
+            }
+
+            code.intoArray(codes, offset);
+        }
+
+        for (; offset < count; offset++) {
+            codes[offset] = FeedbackKernel.feedback(guess, solutions[offset]);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+import java.util.*;
+
+public final class WordBitsets {
+    private final String[] words; // Ids follow the ranking order
+    private final int[] dictionaryIds; // Position of each ranked word in the source list
+    private final int[] ranks; // Id of each source-list word, the inverse of dictionaryIds
+    private final Map<String, Integer> sourceIds; // Shared with the DictionaryIndex
+    private final int wordLongs;
+    private final int wordLength;
+    private final int maxCount; // A letter can repeat at most wordLength times
+    private final long[][] letterAt; // [position * 26 + letter]
+    private final long[][] letterAtLeast; // [letter * (maxCount + 2) + count]
+    private final long[] empty;
+    private final byte[] letters; // [id * wordLength + position], 0-25
+
+    public WordBitsets(List<String> dictionary, Map<String, Integer> sourceIds, int wordLength,
+                       Comparator<String> ranking) {
+        this(dictionary.toArray(new String[0]), null, rankOrder(dictionary, ranking), sourceIds, wordLength);
+    }
+
+    // rankOrder[rank] is the source-list position of the word with that id; packed may be null
+    WordBitsets(String[] dictionary, int[] packed, int[] rankOrder, Map<String, Integer> sourceIds, int wordLength) {
+        this.words = new String[rankOrder.length];
+        this.dictionaryIds = rankOrder;
+        this.ranks = new int[rankOrder.length];
+        this.sourceIds = sourceIds;
+        for (int rank = 0; rank < rankOrder.length; rank++) {
+            words[rank] = dictionary[rankOrder[rank]];
+            ranks[rankOrder[rank]] = rank;
+        }
+        this.wordLongs = (words.length + 63) >>> 6;
+        this.wordLength = wordLength;
+        this.maxCount = wordLength;
+        this.letterAt = new long[wordLength * 26][wordLongs];
+        this.letterAtLeast = new long[26 * (maxCount + 2)][wordLongs];
+        this.empty = new long[wordLongs];
+        this.letters = new byte[words.length * wordLength];
+
+        int[] count = new int[26];
+        for (int id = 0; id < words.length; id++) {
+            int slot = id >>> 6;
+            long bit = 1L << id;
+            Arrays.fill(count, 0);
+            for (int i = 0; i < wordLength; i++) {
+                int idx = packed != null
+                        ? PackedWords.letterAt(packed[rankOrder[id]], i)
+                        : words[id].charAt(i) - 'a';
+                letters[id * wordLength + i] = (byte) idx;
+                letterAt[i * 26 + idx][slot] |= bit;
+                count[idx]++;
+            }
+            for (int idx = 0; idx < 26; idx++) {
+                for (int c = 1; c <= count[idx]; c++) {
+                    letterAtLeast[idx * (maxCount + 2) + c][slot] |= bit;
+                }
+            }
+        }
+    }
+
+    private static int[] rankOrder(List<String> dictionary, Comparator<String> ranking) {
+        Integer[] order = new Integer[dictionary.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> ranking.compare(dictionary.get(a), dictionary.get(b)));
+
+        int[] rankOrder = new int[order.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            rankOrder[rank] = order[rank];
+        }
+        return rankOrder;
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public int wordLength() {
+        return wordLength;
+    }
+
+    public String word(int id) {
+        return words[id];
+    }
+
+    // Letter (0-25) at position of the word with this id, without going through the String
+    public int letter(int id, int position) {
+        return letters[id * wordLength + position];
+    }
+
+    public int idOf(String word) {
+        Integer source = sourceIds.get(word);
+        return source == null ? -1 : ranks[source];
+    }
+
+    // Source-list position of the word with this id
+    public int dictionaryId(int id) {
+        return dictionaryIds[id];
+    }
+
+    public long[] all() {
+        long[] bits = new long[wordLongs];
+        fill(bits);
+        return bits;
+    }
+
+    public void fill(long[] bits) {
+        Arrays.fill(bits, -1L);
+        int tail = words.length & 63;
+        if (tail != 0) {
+            bits[wordLongs - 1] = (1L << tail) - 1;
+        }
+    }
+
+    public long[] letterAt(int position, int letter) {
+        return letterAt[position * 26 + letter];
+    }
+
+    public long[] letterAtLeast(int letter, int count) {
+        return count > maxCount ? empty : letterAtLeast[letter * (maxCount + 2) + count];
+    }
+
+    public static void and(long[] target, long[] mask) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= mask[i];
+        }
+    }
+
+    public static void andNot(long[] target, long[] mask) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= ~mask[i];
+        }
+    }
+
+    public boolean contains(long[] bits, String word) {
+        int id = idOf(word);
+        return id >= 0 && (bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    public void clear(long[] bits, String word) {
+        int id = idOf(word);
+        if (id >= 0) {
+            bits[id >>> 6] &= ~(1L << id);
+        }
+    }
+
+    public static int cardinality(long[] bits) {
+        int count = 0;
+        for (long b : bits) {
+            count += Long.bitCount(b);
+        }
+        return count;
+    }
+
+    public int[] toDictionaryIds(long[] bits) {
+        int[] result = new int[cardinality(bits)];
+        int n = 0;
+        for (int slot = 0; slot < bits.length; slot++) {
+            long b = bits[slot];
+            while (b != 0) {
+                result[n++] = dictionaryIds[(slot << 6) + Long.numberOfTrailingZeros(b)];
+                b &= b - 1;
+            }
+        }
+        return result;
+    }
+
+    public List<String> toList(long[] bits) {
+        List<String> list = new ArrayList<>(cardinality(bits));
+        for (int slot = 0; slot < bits.length; slot++) {
+            long b = bits[slot];
+            while (b != 0) {
+                list.add(words[(slot << 6) + Long.numberOfTrailingZeros(b)]);
+                b &= b - 1;
+            }
+        }
+        return list;
+    }
+}
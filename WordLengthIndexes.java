@@ -0,0 +1,71 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+public final class WordLengthIndexes {
+    public static final int MIN_LENGTH = 4;
+    public static final int MAX_LENGTH = 11;
+
+    private final List<List<String>> wordsByLength;
+    private final ConcurrentMap<Integer, DictionaryIndex> indexes = new ConcurrentHashMap<>();
+
+    private WordLengthIndexes(List<List<String>> wordsByLength) {
+        this.wordsByLength = wordsByLength;
+    }
+
+    // One parallel pass buckets the word list by length; bitsets and scores wait until a length is asked for
+    public static WordLengthIndexes load(String wordListPath) throws IOException {
+        Map<Integer, List<String>> grouped;
+        try (Stream<String> lines = Files.lines(Paths.get(wordListPath), StandardCharsets.US_ASCII)) {
+            grouped = lines.parallel()
+                    .map(String::trim)
+                    .filter(word -> word.length() >= MIN_LENGTH && word.length() <= MAX_LENGTH)
+                    .map(word -> word.toLowerCase(Locale.ROOT))
+                    .filter(WordLengthIndexes::isLowercaseWord)
+                    .collect(Collectors.groupingBy(String::length)); // Keeps file order within each length
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        List<List<String>> wordsByLength = new ArrayList<>(MAX_LENGTH + 1);
+        for (int length = 0; length <= MAX_LENGTH; length++) {
+            wordsByLength.add(List.copyOf(grouped.getOrDefault(length, List.of())));
+        }
+        return new WordLengthIndexes(wordsByLength);
+    }
+
+    private static boolean isLowercaseWord(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<String> words(int length) {
+        checkLength(length);
+        return wordsByLength.get(length);
+    }
+
+    public DictionaryIndex forLength(int length) {
+        checkLength(length);
+        return indexes.computeIfAbsent(length, l -> new DictionaryIndex(wordsByLength.get(l)));
+    }
+
+    public boolean isLoaded(int length) {
+        return indexes.containsKey(length);
+    }
+
+    private static void checkLength(int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Word length must be between " + MIN_LENGTH + " and " + MAX_LENGTH + ": " + length);
+        }
+    }
+}
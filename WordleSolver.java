@@ -1,50 +1,130 @@
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class WordleSolver {
-    private final List<String> originalWords;
-    private List<String> possibleWords;
+    private static final String FIRST_OPENER = "salet";
+    private static final String SECOND_OPENER = "frogs";
+    private static final SolverMetrics METRICS = SolverMetrics.get();
 
-    private final boolean[][] grayLetters = new boolean[5][26]; // Direct array lookup
-    private final Map<Integer, Set<Character>> yellowPositions = new HashMap<>(5);
-    private final char[] knownPositions = new char[5];
-    private final Map<Character, Integer> minLetterCount = new HashMap<>();
-    private final Map<Character, Integer> maxLetterCount = new HashMap<>();
+    private final DictionaryIndex index; // Allowed guesses
+    private final DictionaryIndex answers; // Possible solutions; the same index unless a separate answer list is used
+    private final long dictionaryFingerprint;
+    private final List<String> originalWords;
+    private volatile List<String> possibleWords; // Replaced, never mutated, so readers on other threads see a snapshot
 
-    private final Map<String, Double> precomputedScores = new HashMap<>();
-    private final Map<String, Boolean> hasDoubleLettersCache = new HashMap<>();
-    private final Map<Character, Integer> staticLetterFreq = new HashMap<>();
+    private final int wordLength;
+    private final boolean hasOpeners; // The fixed openers are 5-letter words
+    private final ConstraintState constraints;
+    private final List<String> rejectedWords = new ArrayList<>(); // Entered as ERR; not something undo brings back
 
-    private final boolean[] tempUsed = new boolean[26];
     private final int[] tempCount = new int[26];
-    private final char[] tempFeedback = new char[5];
-    private final boolean[] tempSolutionUsed = new boolean[5];
+    private final char[] tempFeedback;
+    private final boolean[] tempSolutionUsed;
+    private final int[] tempPartition;
+
+    private final WordBitsets bitsets; // Over the answers
+    private final WordBitsets guessBitsets;
+    private final long[] candidates;
+    private final LetterCounts letterCounts; // Brought up to date with the candidates only when a pick reads them
+    private final long[] hardModePool; // Guesses that keep every revealed green and yellow
+    private List<String> hardModeGuesses; // Materialized on demand, dropped when the pool shrinks
+    private boolean hardMode;
+    private FeedbackMatrix feedbackMatrix;
+    private EntropyGuessPicker entropyPicker;
+    private ExactGuessSearch exactSearch;
+    private AnytimeGuessPicker anytimePicker;
+    private AnytimeGuessPicker.Selection lastSelection; // Null unless the last guess was picked under a deadline
+    private DecisionCache decisionCache = DecisionCache.shared();
 
     public WordleSolver(String dictionaryPath) throws IOException {
-        Arrays.fill(knownPositions, ' ');
-        this.originalWords = loadDictionary(dictionaryPath);
-        this.possibleWords = new ArrayList<>(originalWords);
-        precomputeOptimizations();
+        this(DictionaryIndex.load(dictionaryPath));
     }
 
     public WordleSolver(List<String> words) {
-        this.originalWords = new ArrayList<>(words);
-        this.possibleWords = new ArrayList<>(words);
-        Arrays.fill(knownPositions, ' ');
-        precomputeOptimizations();
+        this(new DictionaryIndex(words));
+    }
+
+    public WordleSolver(DictionaryIndex index) {
+        this(index, index);
+    }
+
+    // Candidates are filtered and scored over the answers only, while guesses may be any word in guesses
+    public WordleSolver(DictionaryIndex guesses, DictionaryIndex answers) {
+        if (answers != guesses) {
+            if (answers.wordLength() != guesses.wordLength()) {
+                throw new IllegalArgumentException("Answers have " + answers.wordLength() + " letters, guesses "
+                        + guesses.wordLength());
+            }
+            for (String answer : answers.words()) {
+                if (guesses.idOf(answer) < 0) {
+                    throw new IllegalArgumentException("Answer is not an allowed guess: " + answer);
+                }
+            }
+        }
+        this.index = guesses;
+        this.answers = answers;
+        this.dictionaryFingerprint = answers == guesses ? guesses.fingerprint()
+                : guesses.fingerprint() * 31 + answers.fingerprint();
+        this.originalWords = guesses.words();
+        this.bitsets = answers.bitsets();
+        this.guessBitsets = guesses.bitsets();
+        this.candidates = bitsets.all();
+        this.letterCounts = new LetterCounts(bitsets);
+        this.hardModePool = guessBitsets.all();
+        this.possibleWords = answers.words();
+
+        this.wordLength = index.wordLength();
+        this.hasOpeners = wordLength == FeedbackMatrix.WORD_LENGTH;
+        this.constraints = new ConstraintState(wordLength);
+        this.tempFeedback = new char[wordLength];
+        this.tempSolutionUsed = new boolean[wordLength];
+        this.tempPartition = new int[FeedbackMatrix.patterns(wordLength)];
+    }
+
+    // Games are counted here rather than in the constructor: pooled solvers are built once and play many games
+    public void reset() {
+        constraints.clear();
+        rejectedWords.clear();
+        bitsets.fill(candidates);
+        letterCounts.reset();
+        possibleWords = answers.words();
+        guessBitsets.fill(hardModePool);
+        hardModeGuesses = null;
+        METRICS.gameStarted();
+    }
+
+    public DictionaryIndex getIndex() {
+        return index;
+    }
+
+    public DictionaryIndex getAnswerIndex() {
+        return answers;
+    }
+
+    public static DictionaryIndex loadPackedDictionary(String filePath) throws IOException {
+        return PackedDictionary.read(Paths.get(filePath));
     }
 
     public static List<String> loadDictionary(String filePath) throws IOException {
+        return loadDictionary(filePath, FeedbackMatrix.WORD_LENGTH);
+    }
+
+    public static List<String> loadDictionary(String filePath, int wordLength) throws IOException {
         List<String> words = new ArrayList<>(15000);
 
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath), 8192)) {
             String word;
             while ((word = reader.readLine()) != null) {
-                if (word.length() == 5) {
+                if (word.length() == wordLength) {
 
                     char[] chars = word.toCharArray();
                     boolean needsConversion = false;
-                    for (int i = 0; i < 5; i++) {
+                    for (int i = 0; i < wordLength; i++) {
                         if (chars[i] >= 'A' && chars[i] <= 'Z') {
                             chars[i] = (char) (chars[i] + 32);
                             needsConversion = true;
@@ -60,204 +140,357 @@ public class WordleSolver {
     }
 
 
-    private void precomputeOptimizations() {
-
-        for (String word : originalWords) {
-            Arrays.fill(tempUsed, false);
-            for (int i = 0; i < 5; i++) {
-                int idx = word.charAt(i) - 'a';
-                if (!tempUsed[idx]) {
-                    staticLetterFreq.merge(word.charAt(i), 1, Integer::sum);
-                    tempUsed[idx] = true;
+    public void updateConstraints(String guess, String feedback) {
+        long start = System.nanoTime();
+        SolverEvents.UpdateConstraints event = SolverEvents.updateConstraints();
+        int candidatesBefore = possibleWords.size();
+
+        constraints.apply(guess, feedback);
+
+        if (hardMode) {
+            // Only this turn's reveals can shrink the pool; earlier ones are already applied
+            Arrays.fill(tempCount, 0);
+            for (int i = 0; i < wordLength; i++) {
+                char fb = feedback.charAt(i);
+                if (fb == 'G') {
+                    WordBitsets.and(hardModePool, guessBitsets.letterAt(i, guess.charAt(i) - 'a'));
+                }
+                if (fb == 'G' || fb == 'Y') {
+                    tempCount[guess.charAt(i) - 'a']++;
+                }
+            }
+            for (int i = 0; i < 26; i++) {
+                if (tempCount[i] > 0) {
+                    WordBitsets.and(hardModePool, guessBitsets.letterAtLeast(i, tempCount[i]));
                 }
             }
+            hardModeGuesses = null;
         }
 
-        for (String word : originalWords) {
-            precomputedScores.put(word, calculateWordScore(word));
-            hasDoubleLettersCache.put(word, hasDoubleLetters(word));
+        filterWords();
+
+        if (event != null) {
+            event.guess = guess;
+            event.feedback = feedback;
+            event.candidatesBefore = candidatesBefore;
+            event.candidatesAfter = possibleWords.size();
+            event.commit();
         }
+        METRICS.updateConstraints(System.nanoTime() - start);
     }
 
-    private double calculateWordScore(String word) {
-        Arrays.fill(tempUsed, false);
-        double score = 0.0;
+    private void filterWords() {
+        SolverEvents.FilterWords event = SolverEvents.filterWords();
+        int candidatesBefore = possibleWords.size();
 
-        for (int i = 0; i < 5; i++) {
-            int idx = word.charAt(i) - 'a';
-            if (!tempUsed[idx]) {
-                int freq = staticLetterFreq.getOrDefault(word.charAt(i), 0);
-                score += Math.log(freq + 1);
-                tempUsed[idx] = true;
-            }
+        constraints.filter(bitsets, candidates);
+
+        // Ids are assigned in score order, so the survivors come out already ranked
+        possibleWords = bitsets.toList(candidates);
+
+        if (event != null) {
+            event.candidatesBefore = candidatesBefore;
+            event.candidatesAfter = possibleWords.size();
+            event.commit();
         }
-        return score;
     }
 
-    private boolean hasDoubleLetters(String word) {
-        Arrays.fill(tempUsed, false);
-        for (int i = 0; i < 5; i++) {
-            int idx = word.charAt(i) - 'a';
-            if (tempUsed[idx])
-                return true;
-            tempUsed[idx] = true;
+    // Rolls back the last updateConstraints, e.g. after mistyped feedback; false when there is nothing to undo
+    public boolean undo() {
+        if (!constraints.undo()) {
+            return false;
         }
-        return false;
+        rebuildFromConstraints();
+        return true;
     }
 
-    public void updateConstraints(String guess, String feedback) {
+    // A fork of the current constraints; apply what-if feedback to it and hand it back with setConstraints
+    public ConstraintState getConstraints() {
+        return constraints.fork();
+    }
 
-        Arrays.fill(tempCount, 0);
-        int[] matchCount = new int[26];
+    public void setConstraints(ConstraintState state) {
+        constraints.copyFrom(state);
+        rebuildFromConstraints();
+    }
 
-        for (int i = 0; i < 5; i++) {
-            tempCount[guess.charAt(i) - 'a']++;
+    // Candidates only ever shrink turn to turn, so going back means filtering from the full answer list again
+    private void rebuildFromConstraints() {
+        bitsets.fill(candidates);
+        for (String rejected : rejectedWords) {
+            bitsets.clear(candidates, rejected);
         }
+        letterCounts.invalidate(); // Words came back, which subtracting cannot follow
+        filterWords();
+        if (hardMode) {
+            rebuildHardModePool();
+        }
+    }
 
-        for (int i = 0; i < 5; i++) {
-            char g = guess.charAt(i);
-            char fb = feedback.charAt(i);
-            int gIdx = g - 'a';
-
-            if (fb == 'G') {
-                knownPositions[i] = g;
-                matchCount[gIdx]++;
-            } else if (fb == 'Y') {
-                yellowPositions.computeIfAbsent(i, k -> new HashSet<>(3)).add(g);
-                matchCount[gIdx]++;
-            } else if (fb == 'X') {
-                grayLetters[i][gIdx] = true;
-            }
+    private void rebuildHardModePool() {
+        guessBitsets.fill(hardModePool);
+        constraints.filterHardMode(guessBitsets, hardModePool);
+        for (String rejected : rejectedWords) {
+            guessBitsets.clear(hardModePool, rejected);
         }
+        hardModeGuesses = null;
+    }
 
-        for (int i = 0; i < 26; i++) {
-            if (tempCount[i] > 0) {
-                char letter = (char) ('a' + i);
-                int guessed = tempCount[i];
-                int matched = matchCount[i];
+    // Positional letter counts over the current candidates
+    private LetterCounts letterCounts() {
+        letterCounts.update(candidates);
+        return letterCounts;
+    }
 
-                if (matched > 0) {
-                    minLetterCount.merge(letter, matched, Integer::max);
-                }
+    public List<String> getPossibleWords() {
+        return possibleWords;
+    }
 
-                if (matched < guessed) {
-                    maxLetterCount.put(letter, Math.min(
-                            maxLetterCount.getOrDefault(letter, Integer.MAX_VALUE), matched));
-                } else if (!maxLetterCount.containsKey(letter)) {
-                    maxLetterCount.put(letter, Integer.MAX_VALUE);
-                }
+    // Scores each guess against the current candidates, in parallel and in the order given. Read-only: it works on
+    // a snapshot of the candidates, so any thread may call it, even while another one plays the game.
+    public List<GuessScore> scoreGuesses(List<String> guesses) {
+        for (String guess : guesses) {
+            if (guess.length() != wordLength || !guess.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+                throw new IllegalArgumentException("Not a " + wordLength + "-letter lowercase word: " + guess);
+            }
+        }
+        List<String> snapshot = possibleWords;
+        FeedbackMatrix matrix = feedbackMatrix;
+
+        int[] packed = null;
+        if (wordLength == FeedbackMatrix.WORD_LENGTH) {
+            packed = new int[snapshot.size()];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = PackedWords.pack(snapshot.get(i));
+            }
+        }
+        int[] solutionIds = null;
+        if (matrix != null) {
+            solutionIds = new int[snapshot.size()];
+            for (int i = 0; i < solutionIds.length; i++) {
+                solutionIds[i] = matrix.indexOf(snapshot.get(i));
             }
         }
 
-        filterWords();
+        int[] packedSolutions = packed;
+        int[] matrixSolutions = solutionIds;
+        return IntStream.range(0, guesses.size()).parallel()
+                .mapToObj(g -> scoreGuess(guesses.get(g), snapshot, matrix, matrixSolutions, packedSolutions))
+                .collect(Collectors.toList());
     }
 
-    private void filterWords() {
-        // Collect required yellows once
-        Set<Character> requiredYellows = new HashSet<>();
-        for (Set<Character> s : yellowPositions.values()) {
-            requiredYellows.addAll(s);
+    private static GuessScore scoreGuess(String guess, List<String> candidates, FeedbackMatrix matrix,
+            int[] matrixSolutions, int[] packedSolutions) {
+        int n = candidates.size();
+        int[] codes = new int[n];
+        int guessId = matrix != null ? matrix.indexOf(guess) : -1;
+        if (guessId >= 0) {
+            for (int i = 0; i < n; i++) {
+                codes[i] = matrix.feedback(guessId, matrixSolutions[i]);
+            }
+        } else if (packedSolutions != null) {
+            FeedbackKernel.get().feedback(PackedWords.pack(guess), packedSolutions, n, codes);
+        } else {
+            for (int i = 0; i < n; i++) {
+                codes[i] = FeedbackMatrix.encode(guess, candidates.get(i));
+            }
         }
 
-        List<String> filtered = new ArrayList<>(possibleWords.size());
-
-        wordLoop: for (String word : possibleWords) {
-            for (int i = 0; i < 5; i++) {
-                char c = word.charAt(i);
-                int cIdx = c - 'a';
-
-                if (knownPositions[i] != ' ' && c != knownPositions[i]) {
-                    continue wordLoop;
-                }
+        // Sorting groups equal codes without a 3^length bucket array, which gets large for long words
+        Arrays.sort(codes);
+        int groups = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || codes[i] != codes[i - 1]) {
+                groups++;
+            }
+        }
+        int[] patterns = new int[groups];
+        int[] counts = new int[groups];
+        int g = -1;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || codes[i] != codes[i - 1]) {
+                patterns[++g] = codes[i];
+            }
+            counts[g]++;
+        }
+        return new GuessScore(guess, patterns, counts, n);
+    }
 
-                if (grayLetters[i][cIdx]) {
-                    continue wordLoop;
-                }
+    // Ids in the answer index
+    public int[] getCandidateIds() {
+        return bitsets.toDictionaryIds(candidates);
+    }
 
-                Set<Character> yellowsAtPos = yellowPositions.get(i);
-                if (yellowsAtPos != null && yellowsAtPos.contains(c)) {
-                    continue wordLoop;
-                }
-            }
+    public int getWordLength() {
+        return wordLength;
+    }
 
-            if (!checkLetterCountConstraints(word, requiredYellows)) {
-                continue;
-            }
+    public boolean isHardMode() {
+        return hardMode;
+    }
 
-            filtered.add(word);
+    // Switching on mid-game rebuilds the pool once from the greens and letter minimums seen so far
+    public void setHardMode(boolean hardMode) {
+        boolean wasHardMode = this.hardMode;
+        this.hardMode = hardMode;
+        if (hardMode && !wasHardMode) {
+            rebuildHardModePool();
         }
+    }
 
-        possibleWords = filtered;
-        sortWordsByScore();
+    public boolean isAllowedGuess(String guess) {
+        return !hardMode || guessBitsets.contains(hardModePool, guess);
     }
 
-    private boolean checkLetterCountConstraints(String word, Set<Character> requiredYellows) {
-        Arrays.fill(tempCount, 0);
+    // Every word in normal mode; in hard mode only the words consistent with the revealed greens and yellows
+    public List<String> getGuessPool() {
+        if (!hardMode) {
+            return originalWords;
+        }
+        if (hardModeGuesses == null) {
+            hardModeGuesses = guessBitsets.toList(hardModePool);
+        }
+        return hardModeGuesses;
+    }
 
-        for (int i = 0; i < 5; i++) {
-            tempCount[word.charAt(i) - 'a']++;
+    public void useFeedbackMatrix(FeedbackMatrix matrix) {
+        if (matrix != null && !matrix.words().equals(originalWords)) {
+            throw new IllegalArgumentException("Feedback matrix was built for a different dictionary");
         }
+        this.feedbackMatrix = matrix;
+    }
 
-        for (Map.Entry<Character, Integer> entry : minLetterCount.entrySet()) {
-            if (tempCount[entry.getKey() - 'a'] < entry.getValue()) {
-                return false;
-            }
+    public void useEntropyPicker(EntropyGuessPicker picker) {
+        if (picker != null && wordLength != FeedbackMatrix.WORD_LENGTH) {
+            throw new IllegalArgumentException("Entropy scoring supports " + FeedbackMatrix.WORD_LENGTH
+                    + "-letter words only");
         }
+        this.entropyPicker = picker;
+    }
 
-        for (Map.Entry<Character, Integer> entry : maxLetterCount.entrySet()) {
-            int allowed = entry.getValue();
-            if (allowed != Integer.MAX_VALUE && tempCount[entry.getKey() - 'a'] > allowed) {
-                return false;
+    public void useExactSearch(ExactGuessSearch search) {
+        this.exactSearch = search;
+    }
+
+    // Every guess after the opener is picked within the picker's deadline; null switches back to the usual strategy
+    public void useAnytimePicker(AnytimeGuessPicker picker) {
+        this.anytimePicker = picker;
+    }
+
+    // Coverage behind the last deadline-bounded pick; null if another strategy picked the last guess
+    public AnytimeGuessPicker.Selection getLastSelection() {
+        return lastSelection;
+    }
+
+    // Only complete picks are cached. A pick cut short by the deadline would otherwise stand in for every later turn
+    // and solver that reaches these candidates, even ones with time to do better. The budget is keyed too.
+    private String pickAnytimeGuess() {
+        DecisionCache.Key key = null;
+        if (decisionCache != null) {
+            key = decisionKey(DecisionCache.ANYTIME).add(anytimePicker.getBudgetNanos());
+            String guess = decisionCache.get(key);
+            if (guess != null) {
+                lastSelection = anytimePicker.cached(guess, possibleWords, getGuessPool().size());
+                return guess;
             }
         }
+        AnytimeGuessPicker.Selection selection = anytimePicker.pick(getGuessPool(), possibleWords);
+        lastSelection = selection;
+        METRICS.anytimeGuess(!selection.isComplete());
+        if (key != null && selection.isComplete()) {
+            decisionCache.put(key, selection.guess());
+        }
+        return selection.guess();
+    }
 
-        for (char req : requiredYellows) {
-            if (tempCount[req - 'a'] == 0) {
-                return false;
-            }
+    // Null when the search ran out of time; the caller then falls back to the cheaper picks
+    private String pickExactGuess() {
+        String guess = exactSearch.pick(getGuessPool(), possibleWords, feedbackMatrix);
+        if (guess != null) {
+            METRICS.exactGuess();
         }
+        return guess;
+    }
 
-        return true;
+    // Solvers share DecisionCache.shared() unless given another cache, or null to always recompute
+    public void useDecisionCache(DecisionCache cache) {
+        this.decisionCache = cache;
     }
 
-    private void sortWordsByScore() {
-        possibleWords.sort((w1, w2) -> {
-            boolean d1 = hasDoubleLettersCache.get(w1);
-            boolean d2 = hasDoubleLettersCache.get(w2);
+    // Candidates, dictionary and hard-mode pool; strategies fold in any other state they read
+    private DecisionCache.Key decisionKey(int strategy) {
+        DecisionCache.Key key = new DecisionCache.Key(strategy, dictionaryFingerprint).add(candidates);
+        if (hardMode) {
+            key.add(hardModePool);
+        }
+        return key;
+    }
 
-            if (d1 != d2) {
-                return d1 ? 1 : -1;
+    private String cachedGuess(int strategy, Supplier<String> pick) {
+        if (decisionCache == null) {
+            return pick.get();
+        }
+        DecisionCache.Key key = decisionKey(strategy);
+        String guess = decisionCache.get(key);
+        if (guess == null) {
+            guess = pick.get();
+            if (guess != null) {
+                decisionCache.put(key, guess);
             }
-
-            double score1 = precomputedScores.get(w1);
-            double score2 = precomputedScores.get(w2);
-            return Double.compare(score2, score1);
-        });
+        }
+        return guess;
     }
 
-    public List<String> getPossibleWords() {
-        return possibleWords;
+    public String pickEntropyGuess() {
+        return entropyPicker.pick(getGuessPool(), possibleWords, feedbackMatrix);
     }
 
     private String pickDecisionGuess(List<String> candidates) {
         if (candidates.size() == 1)
             return candidates.get(0);
 
+        List<String> allowed = getGuessPool();
+        List<String> guessPool = candidates.size() < 50 ? candidates
+                : allowed.subList(0, Math.min(1000, allowed.size()));
+
+        SolverEvents.PickDecisionGuess event = SolverEvents.pickDecisionGuess();
+        String guess = feedbackMatrix != null ? pickDecisionGuess(candidates, guessPool, feedbackMatrix)
+                : pickDecisionGuess(candidates, guessPool);
+
+        if (event != null) {
+            event.candidates = candidates.size();
+            event.guessPoolSize = guessPool.size();
+            event.matrix = feedbackMatrix != null;
+            event.commit();
+        }
+        METRICS.decisionGuess();
+        return guess;
+    }
+
+    private String pickDecisionGuess(List<String> candidates, List<String> guessPool) {
         String bestWord = candidates.get(0);
         int bestMaxPartition = Integer.MAX_VALUE;
-
-        List<String> guessPool = candidates.size() < 50 ? candidates
-                : originalWords.subList(0, Math.min(1000, originalWords.size()));
+        int[] codes = new int[candidates.size()];
 
         for (String guess : guessPool) {
-            Map<String, Integer> partition = new HashMap<>(32);
+            int worstBranch = 0;
+            int scored = 0;
 
             for (String solution : candidates) {
-                String feedback = simulateFeedback(guess, solution);
-                partition.merge(feedback, 1, Integer::sum);
+                int code = FeedbackMatrix.encode(guess, solution);
+                codes[scored++] = code;
+                int branch = ++tempPartition[code];
+                if (branch > worstBranch) {
+                    worstBranch = branch;
+                    if (worstBranch >= bestMaxPartition)
+                        break; // Cannot beat the current best
+                }
+            }
+            // Clear only the touched buckets; longer words have up to 3^11 of them
+            for (int i = 0; i < scored; i++) {
+                tempPartition[codes[i]] = 0;
             }
 
-            int worstBranch = partition.values().stream().mapToInt(Integer::intValue).max().orElse(0);
             if (worstBranch < bestMaxPartition) {
                 bestMaxPartition = worstBranch;
                 bestWord = guess;
@@ -268,23 +501,56 @@ public class WordleSolver {
         return bestWord;
     }
 
-    private String simulateFeedback(String guess, String solution) {
+    private String pickDecisionGuess(List<String> candidates, List<String> guessPool, FeedbackMatrix matrix) {
+        int[] solutionIds = new int[candidates.size()];
+        for (int i = 0; i < solutionIds.length; i++) {
+            solutionIds[i] = matrix.indexOf(candidates.get(i));
+        }
+
+        String bestWord = candidates.get(0);
+        int bestMaxPartition = Integer.MAX_VALUE;
+
+        for (String guess : guessPool) {
+            int guessId = matrix.indexOf(guess);
+            Arrays.fill(tempPartition, 0);
+            int worstBranch = 0;
+
+            for (int solutionId : solutionIds) {
+                int branch = ++tempPartition[matrix.feedback(guessId, solutionId)];
+                if (branch > worstBranch) {
+                    worstBranch = branch;
+                    if (worstBranch >= bestMaxPartition)
+                        break; // Cannot beat the current best
+                }
+            }
+
+            if (worstBranch < bestMaxPartition) {
+                bestMaxPartition = worstBranch;
+                bestWord = guess;
+                if (bestMaxPartition == 1)
+                    break; // Optimal found
+            }
+        }
+        return bestWord;
+    }
+
+    String simulateFeedback(String guess, String solution) {
         Arrays.fill(tempFeedback, (char) 0);
         Arrays.fill(tempSolutionUsed, false);
 
-        for (int i = 0; i < 5; i++) {
+        for (int i = 0; i < wordLength; i++) {
             if (guess.charAt(i) == solution.charAt(i)) {
                 tempFeedback[i] = 'G';
                 tempSolutionUsed[i] = true;
             }
         }
 
-        for (int i = 0; i < 5; i++) {
+        for (int i = 0; i < wordLength; i++) {
             if (tempFeedback[i] == 0) {
                 char g = guess.charAt(i);
                 boolean found = false;
 
-                for (int j = 0; j < 5; j++) {
+                for (int j = 0; j < wordLength; j++) {
                     if (!tempSolutionUsed[j] && solution.charAt(j) == g) {
                         found = true;
                         tempSolutionUsed[j] = true;
@@ -298,51 +564,42 @@ public class WordleSolver {
         return new String(tempFeedback);
     }
 
+    // Pure function of its arguments (the counts describe candidates), so it is safe to call from any thread.
+    // A letter is worth the smaller side of the split it makes: candidates with it versus without it, overall for
+    // an untested letter and at each position that is not yet green.
     private static String pickInformationGainWord(
             List<String> candidates,
-            char[] knownPositions,
-            Map<Integer, Set<Character>> yellowPositions,
-            Set<Character> testedLetters) {
+            LetterCounts counts,
+            ConstraintState constraints,
+            int testedLetters) {
 
-        Set<Character> mustIncludeYellows = new HashSet<>();
-        for (Set<Character> ys : yellowPositions.values()) {
-            mustIncludeYellows.addAll(ys);
-        }
+        int wordLength = constraints.wordLength();
+        int n = counts.size();
 
         String bestWordNoGreens = null;
         int bestScoreNoGreens = -1;
         String bestWordWithGreens = null;
         int bestScoreWithGreens = -1;
 
-        boolean[] seenInWord = new boolean[26];
-
         for (String w : candidates) {
             boolean usesGreen = false;
-
-            for (int i = 0; i < 5; i++) {
-                if (knownPositions[i] != ' ' && w.charAt(i) == knownPositions[i]) {
-                    usesGreen = true;
-                    break;
-                }
-            }
-
             int score = 0;
-            Arrays.fill(seenInWord, false);
-
-            for (int i = 0; i < 5; i++) {
-                char c = w.charAt(i);
-                int cIdx = c - 'a';
+            int seen = 0;
 
-                if (!testedLetters.contains(c) && !seenInWord[cIdx]) {
-                    score += 2;
-                    seenInWord[cIdx] = true;
+            for (int i = 0; i < wordLength; i++) {
+                int letter = w.charAt(i) - 'a';
+                if (letter == constraints.knownLetter(i)) {
+                    usesGreen = true;
+                    continue;
                 }
-
-                Set<Character> yellowsAtPos = yellowPositions.get(i);
-                if (yellowsAtPos != null && yellowsAtPos.contains(c)) {
-                    score -= 1;
-                } else if (mustIncludeYellows.contains(c)) {
-                    score += 1;
+                int at = counts.at(i, letter);
+                score += Math.min(at, n - at);
+                if ((seen & 1 << letter) == 0) {
+                    seen |= 1 << letter;
+                    if ((testedLetters & 1 << letter) == 0) {
+                        int present = counts.present(letter);
+                        score += Math.min(present, n - present);
+                    }
                 }
             }
 
@@ -357,22 +614,122 @@ public class WordleSolver {
             }
         }
 
-        String chosen = (bestWordNoGreens != null) ? bestWordNoGreens : bestWordWithGreens;
-        for (int i = 0; i < 5; i++) {
-            testedLetters.add(chosen.charAt(i));
+        return (bestWordNoGreens != null) ? bestWordNoGreens : bestWordWithGreens;
+    }
+
+    // Hooks for the JMH module, which sits in a named package and can only reach this class reflectively. They keep
+    // plain signatures so the benchmarks survive changes to the private pickers' parameters.
+    String benchmarkDecisionGuess() {
+        return pickDecisionGuess(possibleWords);
+    }
+
+    String benchmarkInformationGainWord(int testedLetters) {
+        return pickInformationGainWord(possibleWords, letterCounts(), constraints, testedLetters);
+    }
+
+    private String pickInformationGainGuess(Set<Character> testedLetters) {
+        int tested = 0;
+        for (char c : testedLetters) {
+            tested |= 1 << (c - 'a');
+        }
+
+        DecisionCache.Key key = null;
+        String guess = null;
+        if (decisionCache != null) {
+            key = decisionKey(DecisionCache.INFORMATION_GAIN).add(tested);
+            for (int i = 0; i < wordLength; i++) {
+                key.add(constraints.knownLetter(i) & 0xFFFFL | (long) constraints.yellowMask(i) << 16);
+            }
+            guess = decisionCache.get(key);
+        }
+
+        if (guess == null) {
+            SolverEvents.PickInformationGainWord event = SolverEvents.pickInformationGainWord();
+            guess = pickInformationGainWord(possibleWords, letterCounts(), constraints, tested);
+
+            if (event != null) {
+                event.candidates = possibleWords.size();
+                event.guessPoolSize = possibleWords.size();
+                event.testedLetters = Integer.bitCount(tested);
+                event.commit();
+            }
+            METRICS.informationGainGuess();
+            if (key != null) {
+                decisionCache.put(key, guess);
+            }
+        }
+
+        for (int i = 0; i < guess.length(); i++) {
+            testedLetters.add(guess.charAt(i));
+        }
+        return guess;
+    }
+
+    // Among the likeliest candidates (all of them unless the answers are weighted), the one whose letters split the
+    // others most evenly by the live counts, so even a miss narrows the field. The counts and weights follow from the
+    // candidates, so the candidate set alone keys the cache.
+    private String pickSplittingCandidate() {
+        List<String> candidates = possibleWords;
+        if (answers.isWeighted()) {
+            double top = answers.weight(answers.idOf(candidates.get(0)));
+            int end = 1;
+            while (end < candidates.size() && answers.weight(answers.idOf(candidates.get(end))) >= top) {
+                end++; // Candidates are ranked by weight first
+            }
+            candidates = candidates.subList(0, end);
+        }
+        return pickInformationGainWord(candidates, letterCounts(), constraints, 0);
+    }
+
+    public String chooseGuess(int guessCount, Set<Character> testedLetters) {
+        long start = System.nanoTime();
+        String nextGuess;
+        lastSelection = null;
+        if (possibleWords.size() == 1) {
+            nextGuess = possibleWords.get(0);
+        } else if (guessCount == 0 && hasOpeners) {
+            nextGuess = FIRST_OPENER;
+            for (int i = 0; i < wordLength; i++)
+                testedLetters.add(nextGuess.charAt(i));
+        } else if (entropyPicker != null) {
+            nextGuess = cachedGuess(DecisionCache.ENTROPY, () -> {
+                METRICS.entropyGuess();
+                return pickEntropyGuess();
+            });
+        } else if (anytimePicker != null) {
+            nextGuess = pickAnytimeGuess();
+        } else if (guessCount == 1 && hasOpeners && isAllowedGuess(SECOND_OPENER)) {
+            nextGuess = SECOND_OPENER;
+            for (int i = 0; i < wordLength; i++)
+                testedLetters.add(nextGuess.charAt(i));
+        } else if (exactSearch != null && exactSearch.accepts(possibleWords.size())
+                && (nextGuess = cachedGuess(DecisionCache.EXACT, this::pickExactGuess)) != null) {
+            // Endgame small enough for the exact expected-guess search
+        } else if (guessCount <= 2) {
+            // Without a usable fixed opener (other lengths, or hard mode ruling out frogs) spread letters instead
+            nextGuess = pickInformationGainGuess(testedLetters);
+        } else if (possibleWords.size() <= 8 && guessCount <= 5) {
+            nextGuess = cachedGuess(DecisionCache.DECISION, () -> pickDecisionGuess(possibleWords));
+        } else {
+            nextGuess = cachedGuess(DecisionCache.SPLITTING, this::pickSplittingCandidate);
         }
-        return chosen;
+        METRICS.chooseGuess(System.nanoTime() - start);
+        return nextGuess;
     }
 
     boolean isValidInput(String guess, String feedback) {
-        if ("ERR".equals(feedback) || guess.length() != 5 || feedback.length() != 5) {
-            possibleWords.removeIf(word -> word.equals(guess));
+        if ("ERR".equals(feedback) || guess.length() != wordLength || feedback.length() != wordLength) {
+            rejectedWords.add(guess);
+            bitsets.clear(candidates, guess);
+            guessBitsets.clear(hardModePool, guess);
+            hardModeGuesses = null;
+            possibleWords = bitsets.toList(candidates);
             System.out.println("invalid word removed, try again.....");
             return false;
         }
-        if (feedback.length() != 5) {
-            System.out.println(
-                    "invalid feedback langth, ensure exactly 5 lettrs. Valid feed back includes \"X\" \"G\" \"Y\"");
+        if (feedback.length() != wordLength) {
+            System.out.println("invalid feedback langth, ensure exactly " + wordLength
+                    + " lettrs. Valid feed back includes \"X\" \"G\" \"Y\"");
             return false;
         }
 
@@ -386,58 +743,130 @@ public class WordleSolver {
         return true;
     }
 
+    private static String undo(SolverGame game) {
+        String guess = game.undo();
+        if (guess == null) {
+            System.out.println("Nothing to undo.");
+        } else {
+            System.out.println("Feedback for " + guess + " removed, enter it again.");
+        }
+        return guess;
+    }
+
+    // Mistyped feedback usually shows up as a dead end, so the game is only given up once UNDO is declined
+    private static boolean offerUndo(BufferedReader reader) throws IOException {
+        System.out.print("Enter UNDO to correct the last feedback, or press Enter to give up: ");
+        String input = reader.readLine();
+        return input != null && "UNDO".equalsIgnoreCase(input.trim());
+    }
+
     public static void main(String[] args) throws IOException {
-        WordleSolver solver = new WordleSolver("words_alpha_size_5.txt");
+        int wordLength = FeedbackMatrix.WORD_LENGTH;
+        String answersPath = null;
+        for (int i = 0; i + 1 < args.length; i++) {
+            if ("--length".equals(args[i])) {
+                wordLength = Integer.parseInt(args[i + 1]);
+            } else if ("--answers".equals(args[i])) {
+                answersPath = args[i + 1];
+            }
+        }
+
+        SolverMetrics.registerMBean();
+        DictionaryIndex guesses;
+        if (wordLength == FeedbackMatrix.WORD_LENGTH) {
+            String dictionaryPath = Files.exists(Paths.get("words_alpha_size_5.bin"))
+                    ? "words_alpha_size_5.bin" : "words_alpha_size_5.txt";
+            guesses = DictionaryIndex.load(dictionaryPath);
+        } else {
+            guesses = WordLengthIndexes.load("words_alpha.txt").forLength(wordLength);
+        }
+        WordleSolver solver = new WordleSolver(guesses,
+                answersPath == null ? guesses : DictionaryIndex.loadAnswers(answersPath, wordLength));
+
+        FeedbackMatrix matrix = null;
+        EntropyGuessPicker entropyPicker = null;
+        DecisionTree tree = null;
+        int exactCandidates = 0;
+        long exactBudgetMillis = 250;
+        long deadlineNanos = 0;
+        for (int i = 0; i < args.length; i++) {
+            if ("--matrix".equals(args[i])) {
+                String matrixPath = i + 1 < args.length && !args[i + 1].startsWith("--")
+                        ? args[++i] : "feedback_matrix.bin";
+                matrix = FeedbackMatrix.loadOrBuild(solver.originalWords, Paths.get(matrixPath));
+            } else if ("--entropy".equals(args[i])) {
+                int parallelism = i + 1 < args.length && !args[i + 1].startsWith("--")
+                        ? Integer.parseInt(args[++i]) : Runtime.getRuntime().availableProcessors();
+                entropyPicker = new EntropyGuessPicker(parallelism);
+            } else if ("--tree".equals(args[i])) {
+                tree = DecisionTree.load(Paths.get(args[++i]), solver.getIndex());
+            } else if ("--length".equals(args[i]) || "--answers".equals(args[i])) {
+                i++;
+            } else if ("--hard".equals(args[i])) {
+                solver.setHardMode(true);
+            } else if ("--exact".equals(args[i])) {
+                exactCandidates = i + 1 < args.length && !args[i + 1].startsWith("--")
+                        ? Integer.parseInt(args[++i]) : 24;
+            } else if ("--exact-budget-ms".equals(args[i])) {
+                exactBudgetMillis = Long.parseLong(args[++i]);
+            } else if ("--deadline-ms".equals(args[i])) {
+                deadlineNanos = AnytimeGuessPicker.parseMillis(args[++i]);
+            }
+        }
+        if (deadlineNanos > 0) {
+            solver.useAnytimePicker(new AnytimeGuessPicker(deadlineNanos));
+        }
+        if (exactCandidates > 0) {
+            solver.useExactSearch(new ExactGuessSearch(Runtime.getRuntime().availableProcessors(), exactCandidates,
+                    exactBudgetMillis));
+        }
+        solver.useFeedbackMatrix(matrix);
+        solver.useEntropyPicker(entropyPicker);
+        SolverGame game = new SolverGame(solver, tree);
         BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
 
-        int guessCount = 0;
-        Set<Character> testedLetters = new HashSet<>(26);
         String nextGuess = "";
-        
+        String retype = null; // Guess whose feedback was taken back with UNDO
+
+        game.reset();
         while (true) {
             boolean gameSolved = false;
             boolean gameFailed = false;
             
             while (solver.getPossibleWords().size() > 1) {
-                if (guessCount == 0) {
-                    nextGuess = "salet";
-                    for (int i = 0; i < 5; i++)
-                        testedLetters.add(nextGuess.charAt(i));
-                } else if (guessCount == 1) {
-                    nextGuess = "frogs";
-                    for (int i = 0; i < 5; i++)
-                        testedLetters.add(nextGuess.charAt(i));
-                } else if (guessCount == 2) {
-                    nextGuess = pickInformationGainWord(
-                            solver.getPossibleWords(),
-                            solver.knownPositions,
-                            solver.yellowPositions,
-                            testedLetters);
-                } else if (solver.getPossibleWords().size() <= 8 && guessCount <= 5) {
-                    nextGuess = solver.pickDecisionGuess(solver.getPossibleWords());
-                } else {
-                    nextGuess = solver.getPossibleWords().get(0);
-                }
+                nextGuess = retype != null ? retype : game.nextGuess();
+                retype = null;
                 
                 System.out.println(solver.getPossibleWords().size() + " possible words remain.");
                 System.out.println("Try: " + nextGuess);
+                if (solver.getLastSelection() != null) {
+                    System.out.println("Picked " + solver.getLastSelection());
+                }
                 System.out.print("Enter feedback (G=Green, Y=Yellow, X=Gray): ");
                 String feedback = reader.readLine().toUpperCase(Locale.ROOT);
                 
+                if ("UNDO".equals(feedback)) {
+                    retype = undo(game);
+                    continue;
+                }
                 if (!solver.isValidInput(nextGuess, feedback)) {
+                    if ("ERR".equals(feedback)) {
+                        game.leaveTree();
+                    }
                     continue;
                 }
                 
-                if ("GGGGG".equals(feedback)) {
+                if (game.applyFeedback(nextGuess, feedback)) {
                     gameSolved = true;
-                    guessCount++;
                     break;
                 }
                 
-                solver.updateConstraints(nextGuess, feedback);
-                guessCount++;
-                
                 if (solver.getPossibleWords().isEmpty()) {
+                    System.out.println("No possible words remain.");
+                    if (offerUndo(reader)) {
+                        retype = undo(game);
+                        continue;
+                    }
                     System.out.println("Failed to solve — no possible words remain.");
                     gameFailed = true;
                     break;
@@ -445,20 +874,28 @@ public class WordleSolver {
             }
             
             if (solver.getPossibleWords().size() == 1 && !gameSolved && !gameFailed) {
-                nextGuess = solver.getPossibleWords().get(0);
+                nextGuess = game.nextGuess();
                 System.out.println("1 possible word remains.");
                 System.out.println("Try: " + nextGuess);
                 System.out.print("Enter feedback (G=Green, Y=Yellow, X=Gray): ");
                 String feedback = reader.readLine().toUpperCase(Locale.ROOT);
                 
+                if ("UNDO".equals(feedback)) {
+                    retype = undo(game);
+                    continue;
+                }
                 if (!solver.isValidInput(nextGuess, feedback)) {
                     continue;
                 }
                 
-                guessCount++;
-                if ("GGGGG".equals(feedback)) {
+                if (game.applyFeedback(nextGuess, feedback)) {
                     gameSolved = true;
                 } else {
+                    System.out.println("The feedback doesn't match the expected solution.");
+                    if (offerUndo(reader)) {
+                        retype = undo(game);
+                        continue;
+                    }
                     gameFailed = true;
                     System.out.println("Game failed - the feedback doesn't match the expected solution.");
                 }
@@ -466,10 +903,10 @@ public class WordleSolver {
             
             if (gameSolved) {
                 System.out.println("Solution: " + nextGuess);
-                System.out.println("Total guesses: " + guessCount);
+                System.out.println("Total guesses: " + game.guessCount());
                 System.out.println("Wordle solved! Enter 'exit' to quit or press Enter to continue.");
             } else if (gameFailed) {
-                System.out.println("Game failed after " + guessCount + " guesses.");
+                System.out.println("Game failed after " + game.guessCount() + " guesses.");
                 System.out.println("Enter 'exit' to quit or press Enter to start a new game.");
             } else {
                 System.out.println("Game interrupted. Enter 'exit' to quit or press Enter to start a new game.");
@@ -480,13 +917,11 @@ public class WordleSolver {
                 break;
             }
             
-            guessCount = 0;
-            testedLetters.clear();
-            solver = new WordleSolver(solver.originalWords);
+            game.reset();
             nextGuess = "";
             System.out.println("New game started.");
         }
 
         reader.close();
     }
-}
\ No newline at end of file
+}
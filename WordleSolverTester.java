@@ -1,146 +1,284 @@
 import java.io.*;
+import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
 public class WordleSolverTester {
+    private static final int EXACT_CANDIDATES = 24;
+    private static final long EXACT_BUDGET_MILLIS = 250;
 
-    private static String generateFeedback(String guess, String solution) {
-        char[] feedback = new char[5];
-        boolean[] used = new boolean[5];
-
-        for (int i = 0; i < 5; i++) {
-            if (guess.charAt(i) == solution.charAt(i)) {
-                feedback[i] = 'G';
-                used[i] = true;
-            } else {
-                feedback[i] = 'X';
-            }
+    // Checks the packed-word feedback kernel against simulateFeedback for every guess/solution pair
+    private static boolean verifyKernel(DictionaryIndex index) {
+        int n = index.size();
+        int[] packed = new int[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = PackedWords.pack(index.word(i));
         }
 
-        for (int i = 0; i < 5; i++) {
-            if (feedback[i] == 'G')
-                continue;
-            char g = guess.charAt(i);
-            for (int j = 0; j < 5; j++) {
-                if (!used[j] && solution.charAt(j) == g) {
-                    feedback[i] = 'Y';
-                    used[j] = true;
-                    break;
+        FeedbackKernel kernel = FeedbackKernel.get();
+        ThreadLocal<WordleSolver> solvers = ThreadLocal.withInitial(() -> new WordleSolver(index));
+        ThreadLocal<int[]> rows = ThreadLocal.withInitial(() -> new int[n]);
+        AtomicLong mismatches = new AtomicLong();
+
+        java.util.stream.IntStream.range(0, n).parallel().forEach(g -> {
+            WordleSolver solver = solvers.get();
+            int[] codes = rows.get();
+            kernel.feedback(packed[g], packed, n, codes);
+            for (int s = 0; s < n; s++) {
+                String expected = solver.simulateFeedback(index.word(g), index.word(s));
+                if (codes[s] != FeedbackMatrix.encode(expected) && mismatches.incrementAndGet() <= 10) {
+                    System.out.printf("Mismatch %s/%s: kernel %s, simulateFeedback %s%n", index.word(g),
+                            index.word(s), FeedbackMatrix.decode(codes[s]), expected);
                 }
             }
-        }
+        });
 
-        return new String(feedback);
+        System.out.printf("Kernel %s: %d pairs checked, %d mismatches%n", kernel.name(), (long) n * n,
+                mismatches.get());
+        return mismatches.get() == 0;
     }
 
-    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+    public static void main(String[] args) throws IOException {
         String dictionaryPath = "words_alpha_size_5.txt";
-        List<String> allWords = WordleSolver.loadDictionary(dictionaryPath);
-        int totalWords = allWords.size();
-
-        int numWorkers = 4;
-        ExecutorService executor = Executors.newFixedThreadPool(numWorkers);
-
-        AtomicInteger solvedCount = new AtomicInteger();
-        AtomicInteger failedCount = new AtomicInteger();
-        AtomicInteger totalGuesses = new AtomicInteger();
-        ConcurrentMap<Integer, AtomicInteger> solvedAtGuessCount = new ConcurrentHashMap<>();
-
-        PrintStream silentOut = new PrintStream(OutputStream.nullOutputStream());
-
-        List<Future<?>> futures = new ArrayList<>();
-        int chunkSize = (totalWords + numWorkers - 1) / numWorkers;
-
-        for (int w = 0; w < numWorkers; w++) {
-            final int workerId = w;
-            int start = workerId * chunkSize;
-            int end = Math.min(start + chunkSize, totalWords);
-            List<String> sublist = allWords.subList(start, end);
-
-            futures.add(executor.submit(() -> {
-                PrintStream originalOut = System.out;
-                for (int i = 0; i < sublist.size(); i++) {
-                    String solution = sublist.get(i);
-
-                    System.setOut(silentOut);
-                    WordleSolver solver = new WordleSolver(allWords);
-                    System.setOut(originalOut);
-
-                    boolean solved = false;
-                    boolean firstGuess = true;
-                    boolean secondGuess = false;
-                    int guessCount = 0;
-
-                    System.setOut(silentOut);
-                    while (solver.getPossibleWords().size() > 0) {
-                        String guess;
-                        if (firstGuess) {
-                            guess = "salet";
-                        } else if (secondGuess) {
-                            guess = "frogs";
-                        } else {
-                            guess = solver.getPossibleWords().get(0);
-                        }
-
-                        guessCount++;
-                        if (guess.equals(solution)) {
-                            solved = true;
-                            break;
-                        }
-
-                        String feedback = generateFeedback(guess, solution);
-                        solver.updateConstraints(guess, feedback);
-                        firstGuess = false;
-                        secondGuess = false;
-                    }
-                    System.setOut(originalOut);
-
-                    if (solved) {
-                        solvedCount.incrementAndGet();
-                        totalGuesses.addAndGet(guessCount);
-                        solvedAtGuessCount
-                                .computeIfAbsent(guessCount, k -> new AtomicInteger())
-                                .incrementAndGet();
-                    } else {
-                        failedCount.incrementAndGet();
-                    }
-
-                    if ((i + 1) % 500 == 0) {
-                        System.out.printf("Thread %d tested %d/%d%n", workerId + 1, i + 1, sublist.size());
-                    }
+        String answersPath = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String matrixPath = null;
+        int entropyParallelism = 0;
+        String treePath = null;
+        String csvPath = null;
+        String jsonPath = null;
+        boolean verifyKernel = false;
+        boolean hardMode = false;
+        boolean absurdle = false;
+        int exactCandidates = 0;
+        long exactBudgetMillis = EXACT_BUDGET_MILLIS;
+        long deadlineNanos = 0;
+        int benchmarkGames = 0;
+        Long benchmarkSeed = null;
+        String baselinePath = null;
+        String writeBaselinePath = null;
+        double marginPercent = MacroBenchmark.DEFAULT_MARGIN_PERCENT;
+        boolean gateTiming = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("--verify-kernel".equals(args[i])) {
+                verifyKernel = true;
+            } else if ("--threads".equals(args[i])) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("--matrix".equals(args[i])) {
+                matrixPath = i + 1 < args.length && !args[i + 1].startsWith("--") ? args[++i] : "feedback_matrix.bin";
+            } else if ("--entropy".equals(args[i])) {
+                entropyParallelism = i + 1 < args.length && args[i + 1].matches("\\d+")
+                        ? Integer.parseInt(args[++i]) : Runtime.getRuntime().availableProcessors();
+            } else if ("--tree".equals(args[i])) {
+                treePath = args[++i];
+            } else if ("--csv".equals(args[i])) {
+                csvPath = args[++i];
+            } else if ("--json".equals(args[i])) {
+                jsonPath = args[++i];
+            } else if ("--hard".equals(args[i])) {
+                hardMode = true;
+            } else if ("--absurdle".equals(args[i])) {
+                absurdle = true;
+            } else if ("--exact".equals(args[i])) {
+                exactCandidates = i + 1 < args.length && args[i + 1].matches("\\d+")
+                        ? Integer.parseInt(args[++i]) : EXACT_CANDIDATES;
+            } else if ("--exact-budget-ms".equals(args[i])) {
+                exactBudgetMillis = Long.parseLong(args[++i]);
+            } else if ("--deadline-ms".equals(args[i])) {
+                deadlineNanos = AnytimeGuessPicker.parseMillis(args[++i]);
+            } else if ("--dictionary".equals(args[i])) {
+                dictionaryPath = args[++i];
+            } else if ("--answers".equals(args[i])) {
+                answersPath = args[++i];
+            } else if ("--benchmark".equals(args[i])) {
+                benchmarkGames = i + 1 < args.length && args[i + 1].matches("\\d+")
+                        ? Integer.parseInt(args[++i]) : -1;
+            } else if ("--seed".equals(args[i])) {
+                benchmarkSeed = Long.parseLong(args[++i]);
+            } else if ("--baseline".equals(args[i])) {
+                baselinePath = args[++i];
+            } else if ("--write-baseline".equals(args[i])) {
+                writeBaselinePath = args[++i];
+            } else if ("--margin".equals(args[i])) {
+                marginPercent = Double.parseDouble(args[++i]);
+            } else if ("--gate-timing".equals(args[i])) {
+                gateTiming = true;
+            }
+        }
+
+        DictionaryIndex index = DictionaryIndex.load(dictionaryPath);
+        if (verifyKernel) {
+            System.exit(verifyKernel(index) ? 0 : 1);
+        }
+        // Every answer is played; guesses may still be any dictionary word
+        DictionaryIndex answers = answersPath == null ? index
+                : DictionaryIndex.loadAnswers(answersPath, index.wordLength());
+
+        FeedbackMatrix matrix = matrixPath == null ? null
+                : FeedbackMatrix.loadOrBuild(index.words(), Paths.get(matrixPath));
+        EntropyGuessPicker entropyPicker = entropyParallelism > 0 ? new EntropyGuessPicker(entropyParallelism) : null;
+        DecisionTree tree = treePath == null ? null : DecisionTree.load(Paths.get(treePath), index);
+        if (absurdle) {
+            ExactGuessSearch search = new ExactGuessSearch(Runtime.getRuntime().availableProcessors(),
+                    exactCandidates > 0 ? exactCandidates : EXACT_CANDIDATES, exactBudgetMillis);
+            EntropyGuessPicker picker = entropyPicker != null ? entropyPicker
+                    : new EntropyGuessPicker(Runtime.getRuntime().availableProcessors());
+            System.exit(playAbsurdle(index, answers, matrix, tree, search, picker) ? 0 : 1);
+        }
+        ExactGuessSearch exactSearch = exactCandidates > 0
+                ? new ExactGuessSearch(Runtime.getRuntime().availableProcessors(), exactCandidates, exactBudgetMillis)
+                : null;
+        AnytimeGuessPicker anytimePicker = deadlineNanos > 0 ? new AnytimeGuessPicker(deadlineNanos) : null;
+        boolean hard = hardMode;
+
+        // Same strategy objects main uses; each pool thread keeps one game and resets it per word
+        java.util.function.Supplier<SolverGame> games = () -> {
+            WordleSolver solver = new WordleSolver(index, answers);
+            solver.useFeedbackMatrix(matrix);
+            solver.useEntropyPicker(entropyPicker);
+            solver.setHardMode(hard);
+            solver.useExactSearch(exactSearch);
+            solver.useAnytimePicker(anytimePicker);
+            return new SolverGame(solver, tree);
+        };
+        if (benchmarkGames != 0) {
+            System.exit(benchmark(answers.words(), games, benchmarkGames, benchmarkSeed, baselinePath,
+                    writeBaselinePath, marginPercent, gateTiming) ? 0 : 1);
+        }
+
+        GameSimulator simulator = new GameSimulator(threads);
+        GameSimulator.Result result = simulator.run(answers.words(), games);
+        simulator.shutdown();
+
+        if (csvPath != null) {
+            try (Writer out = Files.newBufferedWriter(Paths.get(csvPath))) {
+                result.writeCsv(out);
+            }
+        }
+        if (jsonPath != null) {
+            try (Writer out = Files.newBufferedWriter(Paths.get(jsonPath))) {
+                result.writeJson(out);
+            }
+        }
+        printSummary(result, simulator.getParallelism());
+        if (exactSearch != null) {
+            System.out.printf("Exact search: %d searches, %d over the %dms budget%n", exactSearch.searches(),
+                    exactSearch.timeouts(), exactSearch.getBudgetMillis());
+        }
+        if (anytimePicker != null) {
+            System.out.printf(Locale.ROOT,
+                    "Anytime picks: %d, %d cut short by the %.2fms deadline, chooseGuess p99 %.0fus%n",
+                    anytimePicker.picks(), anytimePicker.deadlineHits(), anytimePicker.getBudgetNanos() / 1e6,
+                    SolverMetrics.get().getChooseGuessP99Micros());
+        }
+    }
+
+    // Runs the macro benchmark and compares it with the baseline, if any; false when a metric regressed.
+    // Game count and seed default to the baseline's, so the same sample is replayed. Timings are reported against
+    // the baseline but only fail the run with gateTiming, since they depend on the machine that wrote it.
+    private static boolean benchmark(List<String> answers, java.util.function.Supplier<SolverGame> games, int count,
+            Long seed, String baselinePath, String writeBaselinePath, double marginPercent, boolean gateTiming)
+            throws IOException {
+        MacroBenchmark.Report baseline = baselinePath == null ? null
+                : MacroBenchmark.Report.load(Paths.get(baselinePath));
+        int gameCount = count > 0 ? count : baseline != null ? baseline.games() : MacroBenchmark.DEFAULT_GAMES;
+        long sampleSeed = seed != null ? seed : baseline != null ? baseline.seed() : MacroBenchmark.DEFAULT_SEED;
+
+        MacroBenchmark.Report report = MacroBenchmark.run(answers, games, gameCount, sampleSeed);
+        System.out.println("\n=== BENCHMARK ===");
+        System.out.println("Current:  " + report);
+        if (writeBaselinePath != null) {
+            report.store(Paths.get(writeBaselinePath));
+            System.out.println("Baseline written to " + writeBaselinePath);
+        }
+        boolean passed = true;
+        if (baseline != null) {
+            System.out.println("Baseline: " + baseline);
+            if (baseline.games() != gameCount || baseline.seed() != sampleSeed) {
+                System.out.println("Warning: the baseline used a different sample");
+            }
+            List<String> regressions = new ArrayList<>(report.regressions(baseline, marginPercent));
+            for (String timing : report.timingRegressions(baseline, marginPercent)) {
+                if (gateTiming) {
+                    regressions.add(timing);
+                } else {
+                    System.out.println("Slower than baseline (not gated, see --gate-timing): " + timing);
                 }
-            }));
+            }
+            for (String regression : regressions) {
+                System.out.println("REGRESSION " + regression);
+            }
+            passed = regressions.isEmpty();
+            System.out.printf(Locale.ROOT, "%s (margin %.0f%%)%n", passed ? "PASS" : "FAIL", marginPercent);
+        }
+        System.out.println("=================");
+        return passed;
+    }
+
+    // Every strategy plays one game against the adversary; false if any of them runs out of guesses
+    private static boolean playAbsurdle(DictionaryIndex index, DictionaryIndex answers, FeedbackMatrix matrix,
+            DecisionTree tree, ExactGuessSearch exactSearch, EntropyGuessPicker entropyPicker) {
+        Map<String, java.util.function.Consumer<WordleSolver>> strategies = new LinkedHashMap<>();
+        strategies.put("default", solver -> { });
+        strategies.put("hard", solver -> solver.setHardMode(true));
+        strategies.put("exact", solver -> solver.useExactSearch(exactSearch));
+        strategies.put("entropy", solver -> solver.useEntropyPicker(entropyPicker));
+        if (tree != null) {
+            strategies.put("tree", solver -> { });
         }
 
-        for (Future<?> f : futures)
-            f.get();
+        System.out.println("\n=== ABSURDLE ===");
+        AbsurdleAdversary adversary = new AbsurdleAdversary(answers);
+        boolean allSolved = true;
+        for (Map.Entry<String, java.util.function.Consumer<WordleSolver>> strategy : strategies.entrySet()) {
+            WordleSolver solver = new WordleSolver(index, answers);
+            solver.useFeedbackMatrix(matrix);
+            strategy.getValue().accept(solver);
+            SolverGame game = new SolverGame(solver, "tree".equals(strategy.getKey()) ? tree : null);
+
+            long start = System.nanoTime();
+            GameSimulator.Result result = GameSimulator.playAgainst(game, adversary);
+            long nanos = System.nanoTime() - start;
+
+            int guesses = result.guesses[0];
+            allSolved &= guesses > 0;
+            System.out.printf("%-8s %s in %.1fms, answer %s: %s%n", strategy.getKey(),
+                    guesses > 0 ? guesses + " guesses" : "unsolved", nanos / 1e6, result.solutions.get(0),
+                    result.paths[0]);
+        }
+        System.out.println("================");
+        return allSolved;
+    }
+
+    private static void printSummary(GameSimulator.Result result, int threads) {
+        int totalWords = result.size();
+        int solvedCount = result.solved();
+        int failedCount = totalWords - solvedCount;
 
         System.out.println("\n=== TEST RESULTS ===");
         System.out.println("Total words: " + totalWords);
-        System.out.println("Solved: " + solvedCount.get());
-        System.out.println("Failed: " + failedCount.get());
-        double avgGuesses = solvedCount.get() > 0
-                ? (double) totalGuesses.get() / solvedCount.get()
-                : 0;
-        System.out.printf("Average guesses for solved words: %.2f%n", avgGuesses);
-        System.out.printf("Success Rate: %.2f%%%n", 100.0 * solvedCount.get() / totalWords);
-        System.out.printf("Failed Rate: %.2f%%%n", 100.0 * failedCount.get() / totalWords);
+        System.out.println("Solved: " + solvedCount);
+        System.out.println("Failed: " + failedCount);
+        System.out.printf("Average guesses for solved words: %.2f%n", result.averageGuesses());
+        System.out.printf("Success Rate: %.2f%%%n", 100.0 * solvedCount / totalWords);
+        System.out.printf("Failed Rate: %.2f%%%n", 100.0 * failedCount / totalWords);
 
         System.out.println("\nPercent solved by guess count:");
+        int[] histogram = result.histogram();
         int cumulativeSolved = 0;
-        for (int i = 1; i <= 10; i++) {
-            int countAtGuess = solvedAtGuessCount.getOrDefault(i, new AtomicInteger()).get();
-            cumulativeSolved += countAtGuess;
+        for (int i = 1; i < histogram.length; i++) {
+            cumulativeSolved += histogram[i];
             double percentSolved = (double) cumulativeSolved / totalWords * 100;
             System.out.printf("Guess %d: %.2f%% solved, %d failed\n",
                     i, percentSolved, totalWords - cumulativeSolved);
-            if (percentSolved >= 100)
+            if (cumulativeSolved == solvedCount)
                 break;
         }
 
+        System.out.printf("Simulated in %.2fs on %d threads%n", result.elapsedNanos() / 1e9, threads);
+        DecisionCache cache = DecisionCache.shared();
+        System.out.printf("Decision cache: %d hits, %d misses, %d entries%n", cache.hits(), cache.misses(),
+                cache.size());
         System.out.println("====================");
-        executor.shutdown();
-
     }
 }
@@ -0,0 +1,68 @@
+package wordlesolver.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * updateConstraints on the candidate sets a real game produces: the full dictionary on the opener, and the
+ * survivors of the opener on the second turn. The solver is mutated by every call, so each invocation gets a
+ * freshly prepared one. The GC profiler counts that per-invocation setup too, so read bytes/op here as an upper
+ * bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConstraintBenchmark {
+
+    @Param({"1000", "5000", "14854"})
+    public int dictionarySize;
+
+    @Param({"1", "2"})
+    public int turn;
+
+    private List<String> words;
+    private Object solver;
+    private String guess;
+    private String feedback;
+    private int game;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Throwable {
+        words = SolverHandles.sampleDictionary(dictionarySize);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws Throwable {
+        String solution = words.get(Math.floorMod(game++ * 7919, words.size()));
+        solver = SolverHandles.NEW_SOLVER.invoke(words);
+        if (turn == 2) {
+            SolverHandles.UPDATE_CONSTRAINTS.invoke(solver, "salet", SolverHandles.feedback("salet", solution));
+            guess = "frogs";
+        } else {
+            guess = "salet";
+        }
+        feedback = SolverHandles.feedback(guess, solution);
+    }
+
+    @Benchmark
+    public Object updateConstraints() throws Throwable {
+        SolverHandles.UPDATE_CONSTRAINTS.invoke(solver, guess, feedback);
+        return SolverHandles.GET_POSSIBLE_WORDS.invoke(solver);
+    }
+}
@@ -0,0 +1,58 @@
+package wordlesolver.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Start-up costs: reading the word list and the constructor's precomputeOptimizations. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DictionaryBenchmark {
+
+    @Param({"1000", "5000", "14854"})
+    public int dictionarySize;
+
+    private List<String> words;
+    private Path dictionaryFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        words = SolverHandles.sampleDictionary(dictionarySize);
+        dictionaryFile = Files.createTempFile("wordle-dictionary-" + dictionarySize, ".txt");
+        Files.write(dictionaryFile, words);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(dictionaryFile);
+    }
+
+    @Benchmark
+    public Object loadDictionary() throws Throwable {
+        return SolverHandles.LOAD_DICTIONARY.invoke(dictionaryFile.toString());
+    }
+
+    @Benchmark
+    public Object constructSolver() throws Throwable {
+        return SolverHandles.NEW_SOLVER.invoke(words);
+    }
+}
@@ -0,0 +1,87 @@
+package wordlesolver.bench;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Guess selection on the candidates left after the salet/frogs opening, as main reaches them on turn three. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GuessBenchmark {
+
+    @Param({"1000", "5000", "14854"})
+    public int dictionarySize;
+
+    private static final int PAIRS = 1024;
+
+    private Object solver;
+    private int testedLetters;
+    private String[] guesses;
+    private String[] solutions;
+    private int pair;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Throwable {
+        List<String> words = SolverHandles.sampleDictionary(dictionarySize);
+        Random random = new Random(42);
+
+        // Pick the solution whose opening leaves the largest candidate set, the expensive case for selection
+        int bestSize = -1;
+        for (int attempt = 0; attempt < 32; attempt++) {
+            String solution = words.get(random.nextInt(words.size()));
+            Object trial = SolverHandles.NEW_SOLVER.invoke(words);
+            SolverHandles.UPDATE_CONSTRAINTS.invoke(trial, "salet", SolverHandles.feedback("salet", solution));
+            SolverHandles.UPDATE_CONSTRAINTS.invoke(trial, "frogs", SolverHandles.feedback("frogs", solution));
+            List<String> left = (List<String>) SolverHandles.GET_POSSIBLE_WORDS.invoke(trial);
+            if (left.size() > bestSize) {
+                bestSize = left.size();
+                solver = trial;
+            }
+        }
+        for (char c : "saletfrog".toCharArray()) {
+            testedLetters |= 1 << (c - 'a');
+        }
+
+        guesses = new String[PAIRS];
+        solutions = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            guesses[i] = words.get(random.nextInt(words.size()));
+            solutions[i] = words.get(random.nextInt(words.size()));
+        }
+    }
+
+    @Benchmark
+    public Object simulateFeedback() throws Throwable {
+        int i = pair++ & (PAIRS - 1);
+        return SolverHandles.SIMULATE_FEEDBACK.invoke(solver, guesses[i], solutions[i]);
+    }
+
+    @Benchmark
+    public Object pickDecisionGuess() throws Throwable {
+        return SolverHandles.PICK_DECISION_GUESS.invoke(solver);
+    }
+
+    @Benchmark
+    public Object pickInformationGainWord() throws Throwable {
+        // The letter counts are brought up to date on the first call; later calls only score the candidates
+        return SolverHandles.PICK_INFORMATION_GAIN_WORD.invoke(solver, testedLetters);
+    }
+}
@@ -0,0 +1,117 @@
+package wordlesolver.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reflective access to the solver, which lives in the unnamed package and keeps its hot paths private.
+ * The pickers are reached through the solver's package-private benchmark hooks rather than the private
+ * methods themselves, whose parameters change with the solver's internals.
+ * Handles are resolved once per trial so the measured call is a plain MethodHandle invocation.
+ */
+final class SolverHandles {
+    static final Class<?> SOLVER;
+    static final MethodHandle LOAD_DICTIONARY;
+    static final MethodHandle NEW_SOLVER;
+    static final MethodHandle UPDATE_CONSTRAINTS;
+    static final MethodHandle GET_POSSIBLE_WORDS;
+    static final MethodHandle SIMULATE_FEEDBACK;
+    static final MethodHandle PICK_DECISION_GUESS;
+    static final MethodHandle PICK_INFORMATION_GAIN_WORD;
+
+    static {
+        try {
+            SOLVER = Class.forName("WordleSolver");
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            LOAD_DICTIONARY = lookup.unreflect(method("loadDictionary", String.class));
+            Constructor<?> constructor = SOLVER.getConstructor(List.class);
+            NEW_SOLVER = lookup.unreflectConstructor(constructor);
+            UPDATE_CONSTRAINTS = lookup.unreflect(method("updateConstraints", String.class, String.class));
+            GET_POSSIBLE_WORDS = lookup.unreflect(method("getPossibleWords"));
+            SIMULATE_FEEDBACK = lookup.unreflect(method("simulateFeedback", String.class, String.class));
+            PICK_DECISION_GUESS = lookup.unreflect(method("benchmarkDecisionGuess"));
+            PICK_INFORMATION_GAIN_WORD = lookup.unreflect(method("benchmarkInformationGainWord", int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private SolverHandles() {
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = SOLVER.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return method;
+    }
+
+    static Path dictionaryPath() {
+        Path configured = Paths.get(System.getProperty("wordle.dictionary", "words_alpha_size_5.txt"));
+        if (Files.exists(configured)) {
+            return configured;
+        }
+        Path parent = Paths.get("..").resolve(configured.getFileName());
+        return Files.exists(parent) ? parent : configured;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> fullDictionary() throws Throwable {
+        return (List<String>) LOAD_DICTIONARY.invoke(dictionaryPath().toString());
+    }
+
+    /** A fixed-seed sample of {@code size} words, kept in dictionary order like the real word list. */
+    static List<String> sampleDictionary(int size) throws Throwable {
+        List<String> all = fullDictionary();
+        if (size >= all.size()) {
+            return all;
+        }
+        List<Integer> indexes = new ArrayList<>(all.size());
+        for (int i = 0; i < all.size(); i++) {
+            indexes.add(i);
+        }
+        Collections.shuffle(indexes, new Random(size));
+        List<Integer> picked = new ArrayList<>(indexes.subList(0, size));
+        Collections.sort(picked);
+
+        List<String> sample = new ArrayList<>(size);
+        for (int index : picked) {
+            sample.add(all.get(index));
+        }
+        return sample;
+    }
+
+    static String feedback(String guess, String solution) {
+        char[] feedback = new char[5];
+        boolean[] used = new boolean[5];
+        for (int i = 0; i < 5; i++) {
+            if (guess.charAt(i) == solution.charAt(i)) {
+                feedback[i] = 'G';
+                used[i] = true;
+            } else {
+                feedback[i] = 'X';
+            }
+        }
+        for (int i = 0; i < 5; i++) {
+            if (feedback[i] == 'G') {
+                continue;
+            }
+            for (int j = 0; j < 5; j++) {
+                if (!used[j] && solution.charAt(j) == guess.charAt(i)) {
+                    feedback[i] = 'Y';
+                    used[j] = true;
+                    break;
+                }
+            }
+        }
+        return new String(feedback);
+    }
+}